@@ -0,0 +1,131 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import payrollsystem.CredentialStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the credential store: the cost of a single login at several PBKDF2 work factors,
+ * and login throughput when many employees log in at once. Run from the PayrollSystem directory, for example:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="CredentialBenchmarks -p iterations=100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CredentialBenchmarks {
+    private static final int EMPLOYEES = 256;
+
+    @Param({"10000", "100000", "310000"})
+    public int iterations;
+
+    private Path file;
+    private CredentialStore store;
+    private String[] passwords;
+
+    /**
+     * The next employee one benchmark thread logs in as, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        /**
+         * Starts each thread at a different employee.
+         */
+        @Setup
+        public void setUp() {
+            next = (int) Thread.currentThread().threadId();
+        }
+
+        /**
+         * Moves on to the next employee.
+         *
+         * @return the ID of the employee
+         */
+        int next() {
+            return next++ & (EMPLOYEES - 1);
+        }
+    }
+
+    /**
+     * Creates a credential store with a password for every employee.
+     *
+     * @throws IOException If the credential file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("credentials-bench-", ".csv");
+        store = new CredentialStore(file, iterations);
+        passwords = new String[EMPLOYEES];
+        for (int id = 0; id < EMPLOYEES; id++) {
+            passwords[id] = "Employee" + id + "123";
+            store.setPassword(id, passwords[id]);
+        }
+    }
+
+    /**
+     * Closes and deletes the credential store.
+     *
+     * @throws IOException If the credential file cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Checks an employee's correct password.
+     *
+     * @return true, as the password is correct
+     */
+    @Benchmark
+    public boolean singleLogin() {
+        return store.verify(7, passwords[7]);
+    }
+
+    /**
+     * Checks a wrong password.
+     *
+     * @return false, as the password is wrong
+     */
+    @Benchmark
+    public boolean rejectedLogin() {
+        return store.verify(7, "wrong");
+    }
+
+    /**
+     * Logs employees in from as many threads as there are processors, as concurrent sessions do.
+     *
+     * @param cursor the next employee this thread logs in as
+     * @return true, as the password is correct
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean concurrentLogins(Cursor cursor) {
+        int id = cursor.next();
+        return store.verify(id, passwords[id]);
+    }
+}
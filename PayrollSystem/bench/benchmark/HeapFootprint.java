@@ -0,0 +1,97 @@
+package benchmark;
+
+import payrollsystem.Employee;
+import payrollsystem.EmployeeColumns;
+import payrollsystem.EmployeeLoader;
+import payrollsystem.PayRollSystem;
+import payrollsystem.PositionCatalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Prints the heap taken up by employees and by the payslip store's index over synthetic workforces, which JMH's
+ * timings do not show. Run from the PayrollSystem directory, for example:
+ * <pre>
+ * mvn test-compile
+ * java -Xmx8g -cp target/classes:target/test-classes benchmark.HeapFootprint 1000 100000 1000000
+ * </pre>
+ * The arguments are the workforce sizes to measure, defaulting to 1000 and 100000.
+ */
+public class HeapFootprint {
+
+    /**
+     * Prints the heap footprints for each workforce size given on the command line.
+     *
+     * @param args the workforce sizes to measure
+     * @throws IOException If a workforce cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{1000, 100_000} : Stream.of(args).mapToInt(Integer::parseInt).toArray();
+        for (int size : sizes) {
+            Path directory = Workforce.create(size);
+            try {
+                reportHeapPerEmployee(directory, size);
+                reportHeapPerPayslip(directory, size);
+            } finally {
+                Workforce.delete(directory);
+            }
+        }
+    }
+
+    /**
+     * Prints the heap used per employee once loaded from the employee file, then again once the same employees
+     * have been moved into an {@link EmployeeColumns} store.
+     *
+     * @param directory the directory holding the workforce's employee file
+     * @param size      the number of employees
+     * @throws IOException If the employee file cannot be read.
+     */
+    private static void reportHeapPerEmployee(Path directory, int size) throws IOException {
+        PositionCatalog catalog = PositionCatalog.load(directory.resolve("PositionDetails.csv"));
+        long baseline = usedHeapAfterGc();
+        List<Employee> loaded = new EmployeeLoader(catalog).load(directory.resolve("EmployeeDetails.csv")).getEmployees();
+        long asObjects = usedHeapAfterGc() - baseline;
+        EmployeeColumns columns = new EmployeeColumns(catalog, loaded.size());
+        for (Employee e : loaded) {
+            columns.add(e);
+        }
+        long withColumns = usedHeapAfterGc() - baseline;
+        System.out.printf("%-50s %12.1f B/employee as objects, %.1f B/employee with columns (%d B of columns)%n",
+                "heap per employee (" + loaded.size() + " loaded)", (double) asObjects / size,
+                (double) withColumns / size, EmployeeColumns.bytesPerRow());
+    }
+
+    /**
+     * Prints the heap taken up by each payslip in the payslip store's in-memory index over a year of pay runs.
+     *
+     * @param directory the directory holding the workforce's data files
+     * @param size      the number of employees
+     */
+    private static void reportHeapPerPayslip(Path directory, int size) {
+        PayRollSystem payroll = new PayRollSystem(directory);
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < 12; i++) {
+            payroll.advanceMonth();
+        }
+        long after = usedHeapAfterGc();
+        System.out.printf("%-50s %12.1f B/payslip%n", "payslip store index heap (12 months, " + size + " employees)",
+                (double) (after - before) / (12.0 * size));
+        payroll.shutdown();
+    }
+
+    /**
+     * Measures the heap in use after asking for a full garbage collection.
+     *
+     * @return the bytes of heap in use
+     */
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,263 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import payrollsystem.Employee;
+import payrollsystem.EmployeeJournal;
+import payrollsystem.PartTimeEmployee;
+import payrollsystem.PayRollSystem;
+import payrollsystem.PayrollTotals;
+import payrollsystem.Payslip;
+import payrollsystem.Position;
+import payrollsystem.TaxRuleCatalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the payroll system's lookups, payslip arithmetic and employee file writes over synthetic
+ * workforces of 1000, 100000 and 1000000 employees. Run from the PayrollSystem directory so PositionDetails.csv
+ * and TaxRules.csv can be found, for example:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="PayrollBenchmarks -p size=1000,100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class PayrollBenchmarks {
+    private static final int LOOKUPS = 1 << 20;
+    private static final int SAMPLE = 100_000;
+    private static final int BATCH = 1_000_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path directory;
+    private PayRollSystem payroll;
+    private List<Employee> employees;
+    private TaxRuleCatalog taxRules;
+    private LocalDate payDate;
+    private String[] titles;
+    private int[] ids;
+    private Payslip[] payslips;
+    private Payslip[] batch;
+    private PartTimeEmployee[] partTimers;
+    private LocalDate[] payPeriods;
+    private EmployeeJournal journal;
+
+    /**
+     * The position in the lookup tables reached by one benchmark thread, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        /**
+         * Starts each thread at a different place in the tables.
+         */
+        @Setup
+        public void setUp() {
+            next = (int) Thread.currentThread().threadId() * 7919;
+        }
+
+        /**
+         * Moves on to the next entry of a table whose length is a power of two.
+         *
+         * @param length the length of the table
+         * @return the index of the next entry
+         */
+        int next(int length) {
+            return next++ & (length - 1);
+        }
+    }
+
+    /**
+     * Writes the workforce, loads it into a payroll system and builds the inputs of every benchmark.
+     *
+     * @throws IOException If the workforce cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Workforce.create(size);
+        payroll = new PayRollSystem(directory);
+        employees = payroll.getEmployees();
+        taxRules = payroll.getTaxRuleCatalog();
+        payDate = LocalDate.now();
+
+        List<Position> positions = payroll.getPositionCatalog().getPositions();
+        titles = new String[Integer.highestOneBit(positions.size()) * 2];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = positions.get(i % positions.size()).getTitle().toUpperCase();
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        ids = new int[LOOKUPS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = employees.get(random.nextInt(employees.size())).getEmployeeId();
+        }
+        int sample = Math.min(size, SAMPLE);
+        payslips = new Payslip[Integer.highestOneBit(sample)];
+        for (int i = 0; i < payslips.length; i++) {
+            payslips[i] = new Payslip(employees.get(i), payDate, taxRules);
+        }
+        batch = new Payslip[BATCH];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = payslips[i % payslips.length];
+        }
+        List<PartTimeEmployee> found = new ArrayList<>();
+        for (Employee e : employees) {
+            if (e instanceof PartTimeEmployee) {
+                found.add((PartTimeEmployee) e);
+            }
+        }
+        partTimers = new PartTimeEmployee[Integer.highestOneBit(found.size())];
+        for (int i = 0; i < partTimers.length; i++) {
+            partTimers[i] = found.get(i);
+        }
+        payPeriods = new LocalDate[16];
+        for (int m = 0; m < payPeriods.length; m++) {
+            payPeriods[m] = LocalDate.of(2025, 1, 25).plusMonths(m);
+        }
+        journal = new EmployeeJournal(directory.resolve("JournalBenchmark.csv"));
+    }
+
+    /**
+     * Closes the journal and payroll system and deletes the workforce.
+     *
+     * @throws IOException If the workforce cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        payroll.shutdown();
+        Workforce.delete(directory);
+    }
+
+    /**
+     * Looks up a position by an upper case title.
+     *
+     * @param cursor this thread's place in the titles
+     * @return the position found
+     */
+    @Benchmark
+    public Position getPositionOfName(Cursor cursor) {
+        return payroll.getPositionOfName(titles[cursor.next(titles.length)]);
+    }
+
+    /**
+     * Looks up a random employee by ID, as Menu.findEmployeeById does.
+     *
+     * @param cursor this thread's place in the IDs
+     * @return the employee found
+     */
+    @Benchmark
+    public Employee findEmployeeById(Cursor cursor) {
+        return payroll.getEmployeeOfId(ids[cursor.next(ids.length)]);
+    }
+
+    /**
+     * Looks up random employees by ID from as many threads as there are processors, as concurrent sessions do.
+     *
+     * @param cursor this thread's place in the IDs
+     * @return the employee found
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Employee findEmployeeByIdContended(Cursor cursor) {
+        return payroll.getEmployeeOfId(ids[cursor.next(ids.length)]);
+    }
+
+    /**
+     * Builds a payslip and works out its net pay.
+     *
+     * @param cursor this thread's place in the employees
+     * @return the net pay in cents
+     */
+    @Benchmark
+    public long payslipConstructionAndNetPay(Cursor cursor) {
+        return new Payslip(employees.get(cursor.next(payslips.length)), payDate, taxRules).calcNetPay();
+    }
+
+    /**
+     * Works out the net pay of an existing payslip.
+     *
+     * @param cursor this thread's place in the payslips
+     * @return the net pay in cents
+     */
+    @Benchmark
+    public long calcNetPay(Cursor cursor) {
+        return payslips[cursor.next(payslips.length)].calcNetPay();
+    }
+
+    /**
+     * Totals a batch of a million payslips in long cents.
+     *
+     * @return the totals
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PayrollTotals payrollTotals() {
+        return PayrollTotals.of(batch);
+    }
+
+    /**
+     * Checks whether a part-time employee's claim was made on time for a pay period.
+     *
+     * @param cursor this thread's place in the part-time employees
+     * @return true if the claim was on time
+     */
+    @Benchmark
+    public boolean claimDeadlineCheck(Cursor cursor) {
+        int i = cursor.next(partTimers.length * payPeriods.length);
+        return partTimers[i / payPeriods.length].isClaimSubmittedOnTime(payPeriods[i % payPeriods.length]);
+    }
+
+    /**
+     * Writes a snapshot of every employee, which replaced rewriting the whole file through updateEmployeeCSV.
+     *
+     * @return the journal
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EmployeeJournal updateEmployeeCSV() {
+        journal.compact(employees);
+        journal.awaitCompaction();
+        return journal;
+    }
+
+    /**
+     * Journals a rank change for every employee and commits them.
+     *
+     * @return the journal
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EmployeeJournal journalRankChanges() {
+        for (Employee e : employees) {
+            journal.recordRankChange(e);
+        }
+        journal.commit(employees);
+        journal.awaitCompaction();
+        return journal;
+    }
+}
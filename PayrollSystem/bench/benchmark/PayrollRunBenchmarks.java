@@ -0,0 +1,144 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import payrollsystem.PayRollSystem;
+import payrollsystem.PayrollTotals;
+import payrollsystem.ShardedPayroll;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of month-end pay runs over synthetic workforces of 1000, 100000 and 1000000 employees, for each kind
+ * of employee storage and for a workforce split into shards. Each measured iteration is a single pay run, as a run
+ * moves the payroll system on a month and cannot be repeated. Run from the PayrollSystem directory, for example:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="PayrollRunBenchmarks -p size=100000 -p storage=COLUMNS"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class PayrollRunBenchmarks {
+
+    /**
+     * A payroll system loaded from a workforce with one kind of storage.
+     */
+    @State(Scope.Benchmark)
+    public static class Run {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        @Param({"OBJECTS", "COLUMNS", "MAPPED"})
+        public PayRollSystem.Storage storage;
+
+        private Path directory;
+        private PayRollSystem payroll;
+
+        /**
+         * Writes the workforce and loads it.
+         *
+         * @throws IOException If the workforce cannot be written.
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Workforce.create(size);
+            payroll = new PayRollSystem(directory, storage);
+        }
+
+        /**
+         * Shuts the payroll system down and deletes the workforce.
+         *
+         * @throws IOException If the workforce cannot be deleted.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            payroll.shutdown();
+            Workforce.delete(directory);
+        }
+    }
+
+    /**
+     * A workforce split into one shard per processor, each with its own payroll system.
+     */
+    @State(Scope.Benchmark)
+    public static class Shards {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        private Path directory;
+        private ShardedPayroll sharded;
+
+        /**
+         * Writes the workforce and splits it into shards by employee ID.
+         *
+         * @throws IOException If the workforce cannot be written or split.
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Workforce.create(size);
+            sharded = new ShardedPayroll(ShardedPayroll.split(directory, directory.resolve("shards"),
+                    ShardedPayroll.Partitioning.ID_HASH, Runtime.getRuntime().availableProcessors()));
+        }
+
+        /**
+         * Closes the shards and deletes the workforce.
+         *
+         * @throws IOException If the workforce cannot be deleted.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            sharded.close();
+            Workforce.delete(directory);
+        }
+    }
+
+    /**
+     * Pays every employee for the next month.
+     *
+     * @param run the payroll system
+     * @return the totals of the pay run
+     */
+    @Benchmark
+    public PayrollTotals advanceMonth(Run run) {
+        return run.payroll.advanceMonth();
+    }
+
+    /**
+     * Pays every employee for the next twelve months, with the yearly rank increments on the way.
+     *
+     * @param run the payroll system
+     * @return the payroll system
+     */
+    @Benchmark
+    public PayRollSystem advanceYear(Run run) {
+        run.payroll.advanceYear();
+        return run.payroll;
+    }
+
+    /**
+     * Pays every shard for the next month, with the shards running in parallel.
+     *
+     * @param shards the sharded payroll
+     * @return the totals of the whole workforce
+     */
+    @Benchmark
+    public PayrollTotals shardedAdvanceMonth(Shards shards) {
+        return PayrollTotals.sum(shards.sharded.advanceMonth().values());
+    }
+}
@@ -0,0 +1,132 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import payrollsystem.ClaimDeadlines;
+import payrollsystem.Employee;
+import payrollsystem.PayRollSystem;
+import payrollsystem.PayrollTotals;
+import payrollsystem.Payslip;
+import payrollsystem.PayslipStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a payroll system whose employees have been paid for one, ten or forty years, to show that
+ * a month's pay run, the check of whether an employee has been paid for a month and reading recent payslips
+ * cost the same however long the payslip history has grown. Run from the PayrollSystem directory, for example:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="PayslipHistoryBenchmarks -p size=10000 -p years=1,40"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class PayslipHistoryBenchmarks {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"1", "10", "40"})
+    public int years;
+
+    private Path directory;
+    private PayRollSystem payroll;
+    private PayslipStore store;
+    private Employee[] employees;
+    private int[] ids;
+    private int[] months;
+    private int next;
+
+    /**
+     * Writes the workforce, pays it for the given number of years and opens a copy of the payslip history
+     * the paid checks are made against.
+     *
+     * @throws IOException If the workforce cannot be written or the payslip history cannot be copied.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Workforce.create(size);
+        payroll = new PayRollSystem(directory, PayRollSystem.Storage.COLUMNS);
+        for (int y = 0; y < years; y++) {
+            payroll.advanceYear();
+        }
+        List<Employee> all = payroll.getEmployees();
+        employees = new Employee[Integer.highestOneBit(all.size())];
+        ids = new int[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            employees[i] = all.get(i);
+            ids[i] = employees[i].getEmployeeId();
+        }
+        int latest = ClaimDeadlines.epochMonth(payroll.getSimulatedDate());
+        months = new int[64];
+        for (int i = 0; i < months.length; i++) {
+            months[i] = latest - i * years * 12 / months.length;
+        }
+        Path history = Files.copy(directory.resolve("PayslipHistory.dat"), directory.resolve("PayslipHistoryCopy.dat"));
+        store = new PayslipStore(history, payroll.getPositionCatalog(), payroll.getTaxRuleCatalog());
+    }
+
+    /**
+     * Closes the payroll system and the copied history, and deletes the workforce.
+     *
+     * @throws IOException If the workforce cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        payroll.shutdown();
+        Workforce.delete(directory);
+    }
+
+    /**
+     * Checks whether one employee has been paid for a month spread across their history.
+     *
+     * @return true if the employee has been paid for that month
+     */
+    @Benchmark
+    public boolean isPaid() {
+        int i = next++;
+        return store.isPaid(ids[i & (ids.length - 1)], months[i & (months.length - 1)]);
+    }
+
+    /**
+     * Reads one employee's payslips for the last year.
+     *
+     * @return the employee's most recent payslips
+     */
+    @Benchmark
+    public List<Payslip> recentPayslips() {
+        return payroll.getRecentPayslips(employees[next++ & (employees.length - 1)], 12);
+    }
+
+    /**
+     * Pays every employee for the next month, adding to the history.
+     *
+     * @return the totals of the pay run
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PayrollTotals advanceMonth() {
+        return payroll.advanceMonth();
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import payrollsystem.PayRollSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of starting a payroll system over synthetic workforces of 1000, 100000 and 1000000 employees:
+ * from the CSV files, from the binary snapshot saved at the last shutdown, and from memory-mapped employee records.
+ * Each measured iteration starts the payroll system once and shuts it down. Run from the PayrollSystem directory,
+ * for example:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="StartupBenchmarks -p size=100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgsAppend = "-Xmx8g")
+public class StartupBenchmarks {
+
+    /**
+     * Where the payroll system is started from.
+     */
+    public enum Source {
+        /**
+         * The CSV files, simulating the past months' pay runs again.
+         */
+        CSV,
+        /**
+         * The snapshot saved at the last shutdown.
+         */
+        SNAPSHOT,
+        /**
+         * The memory-mapped employee record file, simulating the past months' pay runs again.
+         */
+        MAPPED
+    }
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"CSV", "SNAPSHOT", "MAPPED"})
+    public Source source;
+
+    private Path directory;
+    private PayRollSystem.Storage storage;
+
+    /**
+     * Writes the workforce and, for the snapshot and mapped records, starts and shuts down a payroll system
+     * once so the files it starts from exist.
+     *
+     * @throws IOException If the workforce cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Workforce.create(size);
+        storage = source == Source.MAPPED ? PayRollSystem.Storage.MAPPED : PayRollSystem.Storage.OBJECTS;
+        if (source != Source.CSV) {
+            new PayRollSystem(directory, storage).shutdown();
+        }
+    }
+
+    /**
+     * Deletes what the last start wrote that the next start should not find.
+     *
+     * @throws IOException If a file cannot be deleted.
+     */
+    @Setup(Level.Iteration)
+    public void prepare() throws IOException {
+        if (source == Source.CSV) {
+            Workforce.reset(directory);
+        } else if (source == Source.MAPPED) {
+            Files.deleteIfExists(directory.resolve("PayslipHistory.dat"));
+        }
+    }
+
+    /**
+     * Deletes the workforce.
+     *
+     * @throws IOException If the workforce cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Workforce.delete(directory);
+    }
+
+    /**
+     * Starts a payroll system and shuts it down.
+     *
+     * @return the payroll system
+     */
+    @Benchmark
+    public PayRollSystem construct() {
+        PayRollSystem payroll = new PayRollSystem(directory, storage);
+        payroll.shutdown();
+        return payroll;
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import payrollsystem.PositionCatalog;
+import payrollsystem.WorkforceGenerator;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The synthetic workforces the benchmarks run against, each written to its own temporary directory along with
+ * copies of PositionDetails.csv and TaxRules.csv from the directory the benchmarks are run from.
+ */
+final class Workforce {
+    /**
+     * The files a payroll system is loaded from.
+     */
+    static final String[] DATA_FILES = {"PositionDetails.csv", "TaxRules.csv", "EmployeeDetails.csv", "PasswordFile.csv"};
+
+    /**
+     * Prevents instantiation, as all methods are static.
+     */
+    private Workforce() {
+    }
+
+    /**
+     * Writes a workforce of the given size to a new temporary directory. The same seed is used every time,
+     * so every benchmark sees the same employees. The password file is left empty, as importing it would hash
+     * every employee's password before the first benchmark could run.
+     *
+     * @param size the number of employees
+     * @return the directory holding the workforce's data files
+     * @throws IOException If a file cannot be written.
+     */
+    static Path create(int size) throws IOException {
+        Path directory = Files.createTempDirectory("payroll-bench-");
+        Files.copy(Path.of("PositionDetails.csv"), directory.resolve("PositionDetails.csv"));
+        Files.copy(Path.of("TaxRules.csv"), directory.resolve("TaxRules.csv"));
+        PositionCatalog catalog = PositionCatalog.load(directory.resolve("PositionDetails.csv"));
+        new WorkforceGenerator(catalog, 42L).setToday(LocalDate.of(2025, 1, 1)).writeEmployees(directory, size);
+        Files.writeString(directory.resolve("PasswordFile.csv"), "");
+        return directory;
+    }
+
+    /**
+     * Copies a workforce's data files into a new subdirectory, so a second payroll system can be loaded from them.
+     *
+     * @param directory the directory holding the workforce
+     * @param name      the name of the subdirectory
+     * @return the subdirectory
+     * @throws IOException If a file cannot be copied.
+     */
+    static Path copy(Path directory, String name) throws IOException {
+        Path copy = Files.createDirectories(directory.resolve(name));
+        for (String file : DATA_FILES) {
+            Files.copy(directory.resolve(file), copy.resolve(file));
+        }
+        return copy;
+    }
+
+    /**
+     * Deletes everything a payroll system wrote into a workforce's directory except the credentials,
+     * so the next payroll system is loaded from the CSV files and simulates past months again.
+     *
+     * @param directory the directory holding the workforce
+     * @throws IOException If a file cannot be deleted.
+     */
+    static void reset(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "{*.dat,CurrentEmployeeDetails.csv*}")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param directory the directory to delete
+     * @throws IOException If a file cannot be deleted.
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package main;
+
+import payrollsystem.PositionCatalog;
+import payrollsystem.WorkforceGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * GenerateWorkforce class for writing synthetic employee, password and pay claim files for load testing.
+ */
+public class GenerateWorkforce {
+
+    /**
+     * The entry point of the generator.
+     *
+     * @param args the number of employees, then optionally the random seed, the number of months of claims,
+     *             the share of part-time employees and the output directory.
+     * @throws IOException If the position file cannot be read or the output cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: GenerateWorkforce employees [seed] [claimMonths] [partTimeRatio] [outputDirectory]");
+            return;
+        }
+        int employees = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int claimMonths = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        double partTimeRatio = args.length > 3 ? Double.parseDouble(args[3]) : 0.2;
+        Path output = Path.of(args.length > 4 ? args[4] : "generated");
+
+        Files.createDirectories(output);
+        for (String file : new String[]{"PositionDetails.csv", "TaxRules.csv"}) {
+            Files.copy(Path.of(file), output.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+        }
+        WorkforceGenerator generator = new WorkforceGenerator(PositionCatalog.load(Path.of("PositionDetails.csv")), seed)
+                .setPartTimeRatio(partTimeRatio);
+        long start = System.nanoTime();
+        long claims = generator.generate(output, employees, claimMonths);
+        System.out.printf("Wrote %d employees and %d pay claims to %s in %.1f s%n",
+                employees, claims, output.toAbsolutePath(), (System.nanoTime() - start) / 1e9);
+    }
+}
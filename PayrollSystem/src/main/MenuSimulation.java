@@ -17,5 +17,6 @@ public class MenuSimulation {
         PayRollSystem payroll = new PayRollSystem();
         Menu menu = new Menu();
         menu.run(payroll);
+        payroll.shutdown();
     }
 }
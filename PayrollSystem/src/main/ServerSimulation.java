@@ -0,0 +1,60 @@
+package main;
+
+import payrollsystem.PayRollSystem;
+import payrollsystem.SessionServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * ServerSimulation class for serving the command-line payroll system to many sessions at once over a local socket.
+ * Several independent payroll systems, such as one per faculty or campus, can be served from the same program,
+ * each on its own port and with its own data directory.
+ */
+public class ServerSimulation {
+
+    /**
+     * The entry point of the session server. The server runs until a line reading "stop" is entered on the console.
+     *
+     * @param args pairs of a port and the data directory served on it, defaulting to port 4013 serving the
+     *             current directory.
+     * @throws IOException If a port cannot be opened.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length % 2 != 0) {
+            System.out.println("Usage: ServerSimulation [port dataDirectory]...");
+            return;
+        }
+        List<PayRollSystem> tenants = new ArrayList<>();
+        List<SessionServer> servers = new ArrayList<>();
+        if (args.length == 0) {
+            PayRollSystem payroll = new PayRollSystem();
+            tenants.add(payroll);
+            servers.add(new SessionServer(payroll, 4013).start());
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            PayRollSystem payroll = new PayRollSystem(Path.of(args[i + 1]));
+            tenants.add(payroll);
+            servers.add(new SessionServer(payroll, Integer.parseInt(args[i])).start());
+            System.out.println("Serving " + args[i + 1] + " on port " + servers.getLast().getPort() + ".");
+        }
+        System.out.println("Serving sessions on port " + servers.getFirst().getPort()
+                + (servers.size() > 1 ? " and " + (servers.size() - 1) + " more" : "") + ". Enter \"stop\" to shut down.");
+        Scanner console = new Scanner(System.in);
+        while (console.hasNextLine() && !console.nextLine().trim().equalsIgnoreCase("stop")) {
+            for (SessionServer server : servers) {
+                System.out.println("Port " + server.getPort() + ": " + server.getActiveSessions() + " active sessions, "
+                        + server.getSessionsStarted() + " started.");
+            }
+        }
+        for (SessionServer server : servers) {
+            server.close();
+        }
+        for (PayRollSystem payroll : tenants) {
+            payroll.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package main;
+
+import payrollsystem.PayRollSystem;
+import payrollsystem.PayrollTotals;
+import payrollsystem.ShardedPayroll;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ShardedMonthEnd class for splitting a workforce into shards and running month-end on every shard in parallel.
+ */
+public class ShardedMonthEnd {
+
+    /**
+     * The entry point of the sharded month-end.
+     *
+     * @param args the data directory to split and the directory to write the shards to, then optionally
+     *             "category" or "hash", the number of hash shards, the number of months to run and
+     *             "objects", "columns" or "mapped" for how each shard holds its employees.
+     * @throws IOException If the data files cannot be read or the shards cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ShardedMonthEnd sourceDirectory shardDirectory [category|hash] [shards] [months]"
+                    + " [objects|columns|mapped]");
+            return;
+        }
+        ShardedPayroll.Partitioning partitioning = args.length > 2 && args[2].equalsIgnoreCase("hash")
+                ? ShardedPayroll.Partitioning.ID_HASH : ShardedPayroll.Partitioning.CATEGORY;
+        int shardCount = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int months = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        PayRollSystem.Storage storage = args.length > 5
+                ? PayRollSystem.Storage.valueOf(args[5].toUpperCase()) : PayRollSystem.Storage.OBJECTS;
+
+        long start = System.nanoTime();
+        LinkedHashMap<String, Path> directories = ShardedPayroll.split(Path.of(args[0]), Path.of(args[1]),
+                partitioning, shardCount);
+        System.out.printf("Split into %d shards in %.1f s%n", directories.size(), (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        try (ShardedPayroll payroll = new ShardedPayroll(directories, storage)) {
+            System.out.printf("Loaded shards in %.1f s%n", (System.nanoTime() - start) / 1e9);
+            for (int month = 1; month <= months; month++) {
+                start = System.nanoTime();
+                LinkedHashMap<String, PayrollTotals> totals = payroll.advanceMonth();
+                System.out.printf("%nMonth %d, run in %.1f s%n", month, (System.nanoTime() - start) / 1e9);
+                for (Map.Entry<String, PayrollTotals> shard : totals.entrySet()) {
+                    System.out.printf("%-30s %s%n", shard.getKey(), shard.getValue());
+                }
+                System.out.printf("%-30s %s%n", "Total", PayrollTotals.sum(totals.values()));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package payrollsystem;
+
+import java.time.LocalDate;
+
+/**
+ * The part-time claim deadline of each month, the second Friday, worked out once and shared by every claim check.
+ * Deadlines are held as epoch days in a table indexed by epoch month (see {@link #epochMonth}),
+ * so checking a claim is two array reads and two comparisons rather than walking the days of two months.
+ * Months outside the table are worked out when they are asked for.
+ */
+public final class ClaimDeadlines {
+    private static final int FIRST_YEAR = 1900;
+    private static final int LAST_YEAR = 2299;
+    private static final int FIRST_MONTH = FIRST_YEAR * 12;
+    private static final int[] SECOND_FRIDAYS = new int[(LAST_YEAR - FIRST_YEAR + 1) * 12];
+
+    static {
+        for (int i = 0; i < SECOND_FRIDAYS.length; i++) {
+            SECOND_FRIDAYS[i] = compute(FIRST_MONTH + i);
+        }
+    }
+
+    /**
+     * Prevents instantiation, as all methods are static.
+     */
+    private ClaimDeadlines() {
+    }
+
+    /**
+     * Converts a date into the number of months since year 0, which orders months across years.
+     *
+     * @param date any date in the month
+     * @return the epoch month of the date
+     */
+    public static int epochMonth(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Gets the claim deadline of a month.
+     *
+     * @param epochMonth the epoch month
+     * @return the epoch day of the second Friday of that month
+     */
+    public static int secondFriday(int epochMonth) {
+        int index = epochMonth - FIRST_MONTH;
+        return index >= 0 && index < SECOND_FRIDAYS.length ? SECOND_FRIDAYS[index] : compute(epochMonth);
+    }
+
+    /**
+     * Gets the claim deadline of the month of the given date.
+     *
+     * @param date any date in the month
+     * @return the date of the second Friday of that month
+     */
+    public static LocalDate secondFriday(LocalDate date) {
+        return LocalDate.ofEpochDay(secondFriday(epochMonth(date)));
+    }
+
+    /**
+     * Checks whether a claim was made on time for a month's pay run: after the previous month's deadline
+     * and before this month's.
+     *
+     * @param claimDay   the epoch day the claim was made
+     * @param epochMonth the epoch month being paid
+     * @return true if the claim falls strictly between the two deadlines
+     */
+    public static boolean isOnTime(long claimDay, int epochMonth) {
+        return claimDay < secondFriday(epochMonth) && claimDay > secondFriday(epochMonth - 1);
+    }
+
+    /**
+     * Works out the second Friday of a month from the day of the week of its 1st.
+     *
+     * @param epochMonth the epoch month
+     * @return the epoch day of the second Friday
+     */
+    private static int compute(int epochMonth) {
+        int first = (int) LocalDate.of(Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1, 1).toEpochDay();
+        // 1970-01-01 was a Thursday, so Monday is 0 and Friday is 4
+        int dayOfWeek = Math.floorMod(first + 3, 7);
+        return first + Math.floorMod(4 - dayOfWeek, 7) + 7;
+    }
+}
@@ -0,0 +1,114 @@
+package payrollsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of importing a file of part-time pay claims, counting the claims accepted on time and the claims
+ * accepted late, and holding a record of every claim that was rejected.
+ */
+public class ClaimImportReport {
+    private final String fileName;
+    private final ArrayList<EmployeeLoadReport.RowError> errors = new ArrayList<>();
+    private long accepted;
+    private long late;
+
+    /**
+     * Constructs an empty report for the given file.
+     *
+     * @param fileName the name of the file being imported
+     */
+    public ClaimImportReport(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Records a claim that was made on time and will be paid in its month's pay run.
+     */
+    void addAccepted() {
+        accepted++;
+    }
+
+    /**
+     * Records a claim that was made after its month's deadline and has been held over.
+     */
+    void addLate() {
+        late++;
+    }
+
+    /**
+     * Records a claim that could not be applied.
+     *
+     * @param lineNumber the line number of the claim in the file, starting at 1
+     * @param line       the contents of the line
+     * @param message    the reason the claim was rejected
+     */
+    void addError(int lineNumber, String line, String message) {
+        errors.add(new EmployeeLoadReport.RowError(lineNumber, line, message));
+    }
+
+    /**
+     * Gets the number of claims accepted on time.
+     *
+     * @return the number of on-time claims
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Gets the number of claims accepted after their deadline.
+     *
+     * @return the number of late claims
+     */
+    public long getLate() {
+        return late;
+    }
+
+    /**
+     * Gets the number of claims that were rejected.
+     *
+     * @return the number of rejected claims
+     */
+    public int getRejected() {
+        return errors.size();
+    }
+
+    /**
+     * Gets the claims that were rejected, in file order.
+     *
+     * @return an unmodifiable list of the rejected lines
+     */
+    public List<EmployeeLoadReport.RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Makes a summary of the import, listing at most the given number of rejected claims.
+     *
+     * @param maxErrors the largest number of rejected claims to list
+     * @return a string summarising the import
+     */
+    public String summary(int maxErrors) {
+        StringBuilder sb = new StringBuilder(String.format("%s: %d claims accepted, %d late, %d rejected",
+                fileName, accepted, late, errors.size()));
+        for (int i = 0; i < errors.size() && i < maxErrors; i++) {
+            sb.append(System.lineSeparator()).append("  ").append(errors.get(i));
+        }
+        if (errors.size() > maxErrors) {
+            sb.append(System.lineSeparator()).append("  ...");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Makes a summary of the import, listing every rejected claim.
+     *
+     * @return a string summarising the import
+     */
+    @Override
+    public String toString() {
+        return summary(errors.size());
+    }
+}
@@ -0,0 +1,237 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Streams part-time pay claims out of a claims file, a batch at a time.
+ * Each line is either a CSV row "employeeId,claimDate,hours", as written by {@link WorkforceGenerator},
+ * or a flat JSON object such as {"employeeId": 2001, "claimDate": "2025-01-10", "hours": 37.5}.
+ * Dates are ISO dates (yyyy-MM-dd). A line that cannot be parsed is kept in its batch with the reason,
+ * to be rejected in file order along with the rest of the batch, rather than abandoning the whole file.
+ *
+ * <p>Only the format of each claim is checked here. Whether the employee exists, is part-time and made the
+ * claim in time is decided by the payroll system as each batch is applied.</p>
+ */
+public class ClaimImporter implements Closeable {
+    static final int BATCH_SIZE = 4096;
+    static final double MAX_HOURS = 31 * 24;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final BufferedReader reader;
+    private final ClaimImportReport report;
+    private final int[] lineNumbers = new int[BATCH_SIZE];
+    private final String[] lines = new String[BATCH_SIZE];
+    private final int[] employeeIds = new int[BATCH_SIZE];
+    private final LocalDate[] claimDates = new LocalDate[BATCH_SIZE];
+    private final double[] hours = new double[BATCH_SIZE];
+    private final String[] faults = new String[BATCH_SIZE];
+    private int size;
+    private int lineNumber;
+
+    /**
+     * Opens a claims file for importing.
+     *
+     * @param file the path to the claims file
+     * @throws IOException If the file cannot be opened.
+     */
+    public ClaimImporter(Path file) throws IOException {
+        reader = new BufferedReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), BUFFER_SIZE);
+        report = new ClaimImportReport(file.getFileName().toString());
+    }
+
+    /**
+     * Reads the next batch of claims, noting the reason any malformed line could not be parsed.
+     *
+     * @return true if a batch was read, false if the end of the file has been reached
+     * @throws IOException If the file cannot be read.
+     */
+    public boolean readBatch() throws IOException {
+        size = 0;
+        String line;
+        while (size < BATCH_SIZE && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.regionMatches(true, 0, "employeeId,", 0, 11))) continue;
+            try {
+                parseClaim(line);
+                faults[size] = null;
+            } catch (RuntimeException e) {
+                faults[size] = describe(e);
+            }
+            lineNumbers[size] = lineNumber;
+            lines[size] = line;
+            size++;
+        }
+        return size > 0;
+    }
+
+    /**
+     * Gets the number of claims in the current batch.
+     *
+     * @return the size of the batch
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the reason a line in the current batch could not be parsed.
+     *
+     * @param i the position of the line in the batch
+     * @return the reason, or null if the line holds a well-formed claim
+     */
+    String getFault(int i) {
+        return faults[i];
+    }
+
+    /**
+     * Gets the ID of the employee making a claim in the current batch.
+     *
+     * @param i the position of the claim in the batch
+     * @return the employee's ID
+     */
+    int getEmployeeId(int i) {
+        return employeeIds[i];
+    }
+
+    /**
+     * Gets the date a claim in the current batch was made.
+     *
+     * @param i the position of the claim in the batch
+     * @return the claim date
+     */
+    LocalDate getClaimDate(int i) {
+        return claimDates[i];
+    }
+
+    /**
+     * Gets the hours claimed by a claim in the current batch.
+     *
+     * @param i the position of the claim in the batch
+     * @return the hours worked in the month
+     */
+    double getHours(int i) {
+        return hours[i];
+    }
+
+    /**
+     * Records that a claim in the current batch was rejected.
+     *
+     * @param i       the position of the claim in the batch
+     * @param message the reason it was rejected
+     */
+    void reject(int i, String message) {
+        report.addError(lineNumbers[i], lines[i], message);
+    }
+
+    /**
+     * Gets the report of the claims imported so far.
+     *
+     * @return the import report
+     */
+    public ClaimImportReport getReport() {
+        return report;
+    }
+
+    /**
+     * Closes the claims file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parses a single claim into the next slot of the batch.
+     *
+     * @param line a CSV row or JSON object holding one claim
+     * @throws PayRollException If the line is missing a field or the hours are out of range.
+     */
+    private void parseClaim(String line) {
+        String id;
+        String date;
+        String claimed;
+        String trimmed = line.trim();
+        if (trimmed.startsWith("{")) {
+            id = jsonValue(trimmed, "employeeId");
+            date = jsonValue(trimmed, "claimDate");
+            claimed = jsonValue(trimmed, "hours");
+        } else {
+            int first = line.indexOf(',');
+            int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+            if (second < 0 || line.indexOf(',', second + 1) >= 0) {
+                throw new PayRollException("Fault in claim CSV formatting");
+            }
+            id = line.substring(0, first).trim();
+            date = line.substring(first + 1, second).trim();
+            claimed = line.substring(second + 1).trim();
+        }
+        double h = Double.parseDouble(claimed);
+        if (!(h > 0 && h <= MAX_HOURS)) {
+            throw new PayRollException("Hours must be more than 0 and at most " + (int) MAX_HOURS + ": " + claimed);
+        }
+        employeeIds[size] = Integer.parseInt(id);
+        claimDates[size] = parseDate(date);
+        hours[size] = h;
+    }
+
+    /**
+     * Parses an ISO date without going through a formatter.
+     *
+     * @param s a date in the form yyyy-MM-dd
+     * @return the date
+     * @throws PayRollException If the date is not in that form.
+     */
+    private static LocalDate parseDate(String s) {
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            throw new PayRollException("Claim date is not in the form yyyy-MM-dd: " + s);
+        }
+        return LocalDate.of(Integer.parseInt(s, 0, 4, 10), Integer.parseInt(s, 5, 7, 10),
+                Integer.parseInt(s, 8, 10, 10));
+    }
+
+    /**
+     * Finds the value of a field in a flat JSON object, without the quotes around a string value.
+     *
+     * @param json the JSON object
+     * @param key  the name of the field
+     * @return the value of the field
+     * @throws PayRollException If the object has no such field.
+     */
+    private static String jsonValue(String json, String key) {
+        int k = json.indexOf("\"" + key + "\"");
+        int colon = k < 0 ? -1 : json.indexOf(':', k + key.length() + 2);
+        if (colon < 0) {
+            throw new PayRollException("Claim is missing " + key);
+        }
+        int start = colon + 1;
+        while (start < json.length() && Character.isWhitespace(json.charAt(start))) start++;
+        if (start < json.length() && json.charAt(start) == '"') {
+            int end = json.indexOf('"', start + 1);
+            if (end < 0) throw new PayRollException("Unterminated string for " + key);
+            return json.substring(start + 1, end);
+        }
+        int end = start;
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') end++;
+        return json.substring(start, end).trim();
+    }
+
+    /**
+     * Turns an exception thrown while parsing a claim into a message for the import report.
+     *
+     * @param e the exception thrown
+     * @return a short description of what went wrong
+     */
+    private static String describe(RuntimeException e) {
+        if (e instanceof PayRollException || e.getMessage() == null) {
+            return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+}
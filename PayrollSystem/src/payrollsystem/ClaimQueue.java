@@ -0,0 +1,117 @@
+package payrollsystem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Part-time pay claims waiting to be applied, on a lock-free queue any number of sessions can add to at once.
+ * Submitting a claim never waits for a pay run. Each claim is a complete, unchanging record, and claims are only
+ * taken off the queue by the payroll system while it holds its write lock, so a pay run applies every claim
+ * it takes in full and never sees one half-way through being made.
+ *
+ * <p>Claims dated after a drain are moved off the queue into a holding list, still in the order they were
+ * submitted. Everything in the holding list was submitted before anything still on the queue, so the next drain
+ * takes from the holding list first and claims always come out in submission order.</p>
+ */
+public class ClaimQueue {
+    private final ConcurrentLinkedQueue<Claim> claims = new ConcurrentLinkedQueue<>();
+    private final ArrayList<Claim> held = new ArrayList<>();
+
+    /**
+     * A single pay claim as it was submitted.
+     */
+    public static final class Claim {
+        private final PartTimeEmployee employee;
+        private final LocalDate claimDate;
+        private final double hours;
+
+        /**
+         * Constructs a Claim.
+         *
+         * @param employee  the part-time employee making the claim
+         * @param claimDate the date the claim was made
+         * @param hours     the total hours worked in the month
+         */
+        public Claim(PartTimeEmployee employee, LocalDate claimDate, double hours) {
+            this.employee = employee;
+            this.claimDate = claimDate;
+            this.hours = hours;
+        }
+
+        /**
+         * Gets the employee making the claim.
+         *
+         * @return the part-time employee
+         */
+        public PartTimeEmployee getEmployee() {
+            return employee;
+        }
+
+        /**
+         * Gets the date the claim was made.
+         *
+         * @return the claim date
+         */
+        public LocalDate getClaimDate() {
+            return claimDate;
+        }
+
+        /**
+         * Gets the hours claimed.
+         *
+         * @return the total hours worked in the month
+         */
+        public double getHours() {
+            return hours;
+        }
+    }
+
+    /**
+     * Adds a claim to the queue without blocking.
+     *
+     * @param claim the claim to be applied by a later pay run
+     */
+    public void submit(Claim claim) {
+        claims.add(claim);
+    }
+
+    /**
+     * Takes every claim made on or before the given date, in the order they were submitted.
+     * Claims dated later, which can only be made while the simulated date is moving, are held for the next drain.
+     *
+     * @param date the last claim date to take
+     * @return the claims taken
+     */
+    public synchronized List<Claim> drain(LocalDate date) {
+        ArrayList<Claim> taken = new ArrayList<>();
+        int kept = 0;
+        for (Claim claim : held) {
+            if (claim.claimDate.isAfter(date)) {
+                held.set(kept++, claim);
+            } else {
+                taken.add(claim);
+            }
+        }
+        held.subList(kept, held.size()).clear();
+        Claim claim;
+        while ((claim = claims.poll()) != null) {
+            if (claim.claimDate.isAfter(date)) {
+                held.add(claim);
+            } else {
+                taken.add(claim);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Checks whether any claims are waiting, either on the queue or held for a later drain.
+     *
+     * @return true if there are no claims waiting
+     */
+    public synchronized boolean isEmpty() {
+        return claims.isEmpty() && held.isEmpty();
+    }
+}
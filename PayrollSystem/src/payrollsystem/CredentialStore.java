@@ -0,0 +1,399 @@
+package payrollsystem;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Holds every employee's login password, keyed by employee ID.
+ * Passwords are hashed with PBKDF2 using a tunable number of iterations and kept in memory, so a login is a single
+ * map lookup and hash with no file reading. Changes are appended to a credential file as they happen, and the last
+ * line for an ID wins when the file is loaded.
+ *
+ * <p>Passwords from the plain text PasswordFile.csv are imported once, the first time the store is opened. They are
+ * hashed as they are imported, in parallel across the available processors, and only the hashes are saved to the
+ * credential file, along with a line marking the import as done. A credential file written before passwords were
+ * hashed on import still holds plain text lines; they are hashed when it is loaded and the file is rewritten
+ * without them. Stored hashes made with fewer iterations than the current setting are rehashed on the employee's
+ * next login.</p>
+ */
+public class CredentialStore implements AutoCloseable {
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final String REVOKED = "revoked";
+    private static final String PLAIN_TEXT = "plain";
+    private static final String IMPORTED = "imported";
+
+    private final Path credentialFile;
+    private final int iterations;
+    private final ConcurrentHashMap<Integer, Credential> credentials = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private BufferedWriter writer;
+    private boolean imported;
+
+    /**
+     * Constructs a CredentialStore persisted to the given file and loads any credentials already in it.
+     *
+     * @param credentialFile the path of the credential file
+     * @param iterations     the number of PBKDF2 iterations used for new hashes
+     * @throws IOException If the credential file cannot be read.
+     */
+    public CredentialStore(Path credentialFile, int iterations) throws IOException {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be at least 1: " + iterations);
+        this.credentialFile = credentialFile;
+        this.iterations = iterations;
+        LinkedHashMap<Integer, String> plainText = load();
+        if (!plainText.isEmpty()) {
+            putHashed(plainText);
+            rewrite();
+        }
+    }
+
+    /**
+     * Imports plain text passwords for employees that have no stored credential, unless a password file has
+     * already been imported into this store. A row "employeeId,password" belongs to the employee with that ID.
+     * A row holding only a password belongs to the employee loaded from the same line of EmployeeDetails.csv,
+     * which can only be known when the employees have just been loaded from it. Rows naming no known employee
+     * are reported and skipped. The passwords are hashed before anything is saved, and only the hashes are written
+     * to the credential file, so later runs never read the password file again.
+     *
+     * @param passwordFile   the plain text password file
+     * @param isEmployee     tests whether an ID belongs to an employee in the system
+     * @param employeeOnLine gets the employee loaded from a line of EmployeeDetails.csv, or null if the employees
+     *                       were not loaded from it on this run
+     * @return the number of passwords imported
+     * @throws IOException If the password file cannot be read.
+     */
+    public int importPlainText(Path passwordFile, IntPredicate isEmployee, IntFunction<Employee> employeeOnLine)
+            throws IOException {
+        if (imported) return 0;
+        LinkedHashMap<Integer, String> passwords = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(passwordFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                int comma = line.indexOf(',');
+                int id;
+                String password;
+                if (comma >= 0) {
+                    try {
+                        id = Integer.parseInt(line.substring(0, comma).trim());
+                    } catch (NumberFormatException e) {
+                        System.err.println("Skipping password on line " + lineNumber + " of " + passwordFile
+                                + ": ID Number is not a number");
+                        continue;
+                    }
+                    if (!isEmployee.test(id)) {
+                        System.err.println("Skipping password on line " + lineNumber + " of " + passwordFile
+                                + ": unknown employee ID " + id);
+                        continue;
+                    }
+                    password = line.substring(comma + 1).trim();
+                } else {
+                    Employee e = employeeOnLine == null ? null : employeeOnLine.apply(lineNumber);
+                    if (e == null) {
+                        System.err.println("Skipping password on line " + lineNumber + " of " + passwordFile
+                                + ": no employee ID and no employee loaded from that line of EmployeeDetails.csv");
+                        continue;
+                    }
+                    id = e.getEmployeeId();
+                    password = line.trim();
+                }
+                if (!credentials.containsKey(id)) {
+                    passwords.putIfAbsent(id, password);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Credential> c : putHashed(passwords).entrySet()) {
+            write(line(c.getKey(), c.getValue()), false);
+        }
+        append(IMPORTED);
+        imported = true;
+        return passwords.size();
+    }
+
+    /**
+     * Checks a login attempt. If the stored hash uses fewer iterations than the current setting, the password is
+     * rehashed and saved once it has been confirmed.
+     *
+     * @param employeeId the ID of the employee logging in
+     * @param password   the password entered
+     * @return true if the password is correct
+     */
+    public boolean verify(int employeeId, String password) {
+        Credential c = credentials.get(employeeId);
+        if (c == null || password == null) return false;
+        boolean correct = MessageDigest.isEqual(c.hash, hash(password, c.salt, c.iterations));
+        if (correct && c.iterations < iterations) {
+            setPassword(employeeId, password);
+        }
+        return correct;
+    }
+
+    /**
+     * Sets an employee's password, hashing it with a fresh salt and saving it to the credential file.
+     *
+     * @param employeeId the ID of the employee
+     * @param password   the new password
+     */
+    public void setPassword(int employeeId, String password) {
+        Credential c = newCredential(password);
+        credentials.put(employeeId, c);
+        append(line(employeeId, c));
+    }
+
+    /**
+     * Removes an employee's password, so they can no longer log in.
+     *
+     * @param employeeId the ID of the employee
+     */
+    public void remove(int employeeId) {
+        if (credentials.remove(employeeId) != null) {
+            append(employeeId + "," + REVOKED);
+        }
+    }
+
+    /**
+     * Checks whether an employee has a password.
+     *
+     * @param employeeId the ID of the employee
+     * @return true if the employee can log in
+     */
+    public boolean contains(int employeeId) {
+        return credentials.containsKey(employeeId);
+    }
+
+    /**
+     * Gets the number of PBKDF2 iterations used for new hashes.
+     *
+     * @return the iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Closes the credential file.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing the credential file.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Hashes a password with PBKDF2.
+     *
+     * @param password   the password
+     * @param salt       the salt
+     * @param iterations the number of iterations
+     * @return the derived hash
+     */
+    static byte[] hash(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Hashes a password with a fresh salt and the current number of iterations.
+     *
+     * @param password the password
+     * @return the hashed credential
+     */
+    private Credential newCredential(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return new Credential(iterations, salt, hash(password, salt, iterations));
+    }
+
+    /**
+     * Hashes a batch of passwords in parallel and adds them to the store, unless an employee has been given
+     * a credential meanwhile. Nothing is written to the credential file.
+     *
+     * @param passwords the plain text passwords, keyed by employee ID
+     * @return the credentials added, keyed by employee ID in the order of the passwords
+     */
+    private LinkedHashMap<Integer, Credential> putHashed(LinkedHashMap<Integer, String> passwords) {
+        Integer[] ids = passwords.keySet().toArray(new Integer[0]);
+        Credential[] hashed = new Credential[ids.length];
+        IntStream.range(0, ids.length).parallel().forEach(i -> hashed[i] = newCredential(passwords.get(ids[i])));
+        LinkedHashMap<Integer, Credential> added = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (credentials.putIfAbsent(ids[i], hashed[i]) == null) {
+                added.put(ids[i], hashed[i]);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Makes the credential file line of a hashed credential.
+     *
+     * @param employeeId the ID of the employee
+     * @param c          the credential
+     * @return the line, without a line separator
+     */
+    private static String line(int employeeId, Credential c) {
+        Base64.Encoder base64 = Base64.getEncoder();
+        return employeeId + "," + c.iterations + "," + base64.encodeToString(c.salt) + "," + base64.encodeToString(c.hash);
+    }
+
+    /**
+     * Replaces the credential file with one holding only the current credentials, written to a temporary file
+     * first so a failed rewrite leaves the old file in place.
+     */
+    private synchronized void rewrite() {
+        Path temp = credentialFile.resolveSibling(credentialFile.getFileName() + ".tmp");
+        try {
+            close();
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Integer, Credential> c : credentials.entrySet()) {
+                    out.write(line(c.getKey(), c.getValue()));
+                    out.write(System.lineSeparator());
+                }
+                if (imported) {
+                    out.write(IMPORTED);
+                    out.write(System.lineSeparator());
+                }
+            }
+            Files.move(temp, credentialFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error rewriting the credential file.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads every credential from the credential file, with later lines replacing earlier ones.
+     * Plain text lines, written by imports before passwords were hashed on import, are returned rather than loaded.
+     *
+     * @return the plain text passwords still waiting to be hashed, keyed by employee ID
+     * @throws IOException If the file cannot be read.
+     */
+    private LinkedHashMap<Integer, String> load() throws IOException {
+        LinkedHashMap<Integer, String> plainText = new LinkedHashMap<>();
+        if (!Files.exists(credentialFile)) return plainText;
+        Base64.Decoder base64 = Base64.getDecoder();
+        try (BufferedReader reader = Files.newBufferedReader(credentialFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                String[] fields = CsvTokenizer.tokenize(line);
+                if (fields.length == 1 && fields[0].equals(IMPORTED)) {
+                    imported = true;
+                    continue;
+                }
+                try {
+                    int id = Integer.parseInt(fields[0]);
+                    if (fields.length == 2 && fields[1].equals(REVOKED)) {
+                        credentials.remove(id);
+                        plainText.remove(id);
+                    } else if (fields.length == 3 && fields[1].equals(PLAIN_TEXT)) {
+                        credentials.remove(id);
+                        plainText.put(id, new String(base64.decode(fields[2]), StandardCharsets.UTF_8));
+                    } else {
+                        plainText.remove(id);
+                        credentials.put(id, new Credential(Integer.parseInt(fields[1]),
+                                base64.decode(fields[2]), base64.decode(fields[3])));
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    System.err.println("Skipping bad credential on line " + lineNumber + " of " + credentialFile);
+                }
+            }
+        }
+        return plainText;
+    }
+
+    /**
+     * Appends a line to the credential file and flushes it, so a change is saved as soon as it is made.
+     *
+     * @param line the line to be appended
+     */
+    private void append(String line) {
+        write(line, true);
+    }
+
+    /**
+     * Appends a line to the credential file, flushing it if asked to.
+     * An import writes its lines without flushing and flushes with the line marking it as done.
+     *
+     * @param line  the line to be appended
+     * @param flush true to flush the file after the line
+     */
+    private synchronized void write(String line, boolean flush) {
+        try {
+            if (writer == null) {
+                writer = Files.newBufferedWriter(credentialFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line);
+            writer.write(System.lineSeparator());
+            if (flush) writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error updating the credential file.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A single employee's stored credential, a salted hash.
+     */
+    private static final class Credential {
+        private final int iterations;
+        private final byte[] salt;
+        private final byte[] hash;
+
+        /**
+         * Constructs a Credential.
+         *
+         * @param iterations the number of iterations used to make the hash
+         * @param salt       the salt of the hash
+         * @param hash       the hash
+         */
+        Credential(int iterations, byte[] salt, byte[] hash) {
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+    }
+}
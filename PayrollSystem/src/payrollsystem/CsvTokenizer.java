@@ -0,0 +1,54 @@
+package payrollsystem;
+
+/**
+ * Splits comma separated lines into fields without using regular expressions.
+ * Used by the file loaders in place of String.split so each line is only scanned twice, once to count and once to cut.
+ */
+public final class CsvTokenizer {
+
+    /**
+     * Prevents instantiation, as all methods are static.
+     */
+    private CsvTokenizer() {
+    }
+
+    /**
+     * Splits a line into its comma separated fields.
+     * As with String.split, empty trailing fields are dropped, so "a,b," has two fields.
+     *
+     * @param line the line to be split
+     * @return the fields of the line in order
+     */
+    public static String[] tokenize(String line) {
+        return tokenize(line, ',');
+    }
+
+    /**
+     * Splits a line into fields on the given separator character, dropping empty trailing fields as String.split does.
+     *
+     * @param line      the line to be split
+     * @param separator the character separating the fields
+     * @return the fields of the line in order
+     */
+    public static String[] tokenize(String line, char separator) {
+        if (line.isEmpty()) return new String[]{line};
+        int length = line.length();
+        while (length > 0 && line.charAt(length - 1) == separator) length--;
+        if (length == 0) return new String[0];
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == separator) count++;
+        }
+        String[] fields = new String[count];
+        int field = 0;
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == separator) {
+                fields[field++] = line.substring(start, i);
+                start = i + 1;
+            }
+        }
+        fields[field] = line.substring(start, length);
+        return fields;
+    }
+}
@@ -0,0 +1,100 @@
+package payrollsystem;
+
+/**
+ * The deductions taken from a single payslip, worked out once when the payslip is made.
+ * Instances are immutable, so the figures printed, totalled or exported always match what was paid.
+ * Every amount is in cents.
+ */
+public final class DeductionBreakdown {
+    private final long usc;
+    private final long paye;
+    private final long prsi;
+    private final long unionFees;
+    private final long healthInsurance;
+    private final long total;
+    private final long netPay;
+
+    /**
+     * Constructs a DeductionBreakdown from already calculated deductions.
+     *
+     * @param grossPay        the pay before deductions
+     * @param usc             the Universal Social Charge
+     * @param paye            the Pay As You Earn income tax
+     * @param prsi            the PRSI contribution
+     * @param unionFees       the union fees
+     * @param healthInsurance the health insurance charge
+     */
+    public DeductionBreakdown(long grossPay, long usc, long paye, long prsi, long unionFees,
+                              long healthInsurance) {
+        this.usc = usc;
+        this.paye = paye;
+        this.prsi = prsi;
+        this.unionFees = unionFees;
+        this.healthInsurance = healthInsurance;
+        this.total = usc + paye + unionFees + prsi + healthInsurance;
+        this.netPay = grossPay - total;
+    }
+
+    /**
+     * Gets the Universal Social Charge.
+     *
+     * @return the USC deduction
+     */
+    public long getUsc() {
+        return usc;
+    }
+
+    /**
+     * Gets the Pay As You Earn income tax.
+     *
+     * @return the PAYE deduction
+     */
+    public long getPaye() {
+        return paye;
+    }
+
+    /**
+     * Gets the PRSI contribution.
+     *
+     * @return the PRSI deduction
+     */
+    public long getPrsi() {
+        return prsi;
+    }
+
+    /**
+     * Gets the union fees.
+     *
+     * @return the union fee deduction
+     */
+    public long getUnionFees() {
+        return unionFees;
+    }
+
+    /**
+     * Gets the health insurance charge.
+     *
+     * @return the health insurance deduction
+     */
+    public long getHealthInsurance() {
+        return healthInsurance;
+    }
+
+    /**
+     * Gets the sum of every deduction.
+     *
+     * @return the total deductions
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the pay left after every deduction.
+     *
+     * @return the net pay
+     */
+    public long getNetPay() {
+        return netPay;
+    }
+}
@@ -1,81 +1,161 @@
 package payrollsystem;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 
 /**
  * An abstract class representing an employee in the payroll system.
+ * An employee stored in an {@link EmployeeColumns} keeps its rank, position, dates, insurance tier and promotion
+ * flag in the columns instead of in its own fields, and its getters and setters read and write its row there.
  */
 public abstract class Employee {
+    private static final int LONG_ID_SERIES = 100_000_000;
     private int employeeId;
     private String name;
     private final String phoneNumber;
-    private String email;
-    protected int rank;
-    protected Position position;
+    private int rank;
+    private Position position;
     private LocalDate dateOfLastPromotion;
-    private double healthInsurance;
-    private final ArrayList<Payslip> historicalPayslips;
+    private long healthInsurance;
     private Boolean promotionDue;
     private String promotionPos;
     private LocalDate reachedTopOfScale;
-    private static int numberOfEmployees = 0;
+    private EmployeeColumns columns;
+    private int row;
 
     /**
      * Constructor for the Employee class.
      *
-     * @param pName         the name of the employee
-     * @param pNumber       the phone number of the employee
-     * @param pPositionName the position title of the employee
-     * @param pRank         the rank of the employee
-     * @param pDate         the date of the last promotion
-     * @param pInsurance    the level of health insurance
+     * @param pEmployeeId the unique ID of the employee, in the series of their position's category
+     * @param pName       the name of the employee
+     * @param pNumber     the phone number of the employee
+     * @param pPosition   the position of the employee
+     * @param pRank       the rank of the employee
+     * @param pDate       the date of the last promotion
+     * @param pInsurance  the level of health insurance
      */
-    public Employee(String pName, String pNumber, String pPositionName, String pRank, String pDate, String pInsurance) {
+    public Employee(int pEmployeeId, String pName, String pNumber, Position pPosition, String pRank, String pDate,
+                    String pInsurance) {
+        this(pEmployeeId, pName, pNumber, pPosition, Integer.parseInt(pRank), parseDate(pDate), insuranceCost(pInsurance));
+    }
+
+    /**
+     * Constructor for the Employee class from details that are already parsed, such as those read from an
+     * employee record file.
+     *
+     * @param pEmployeeId the unique ID of the employee, in the series of their position's category
+     * @param pName       the name of the employee
+     * @param pNumber     the phone number of the employee
+     * @param pPosition   the position of the employee
+     * @param pRank       the rank of the employee
+     * @param pDate       the date of the last promotion
+     * @param pInsurance  the monthly cost of the employee's health insurance in cents
+     */
+    Employee(int pEmployeeId, String pName, String pNumber, Position pPosition, int pRank, LocalDate pDate,
+             long pInsurance) {
         name = pName;
-        email = name.toLowerCase().replace(" ", ".") + "@ul.ie";// Generate email from name
         phoneNumber = pNumber;
-        position = PayRollSystem.getPositionOfName(pPositionName);
-
-        // Generate unique ID based on position category
-        int accessSeries = 1000;
-        switch (position.getCategory()) {
-            case "Human Resources":
-                accessSeries = 3000;
-                break;
-            case "Administrative":
-                accessSeries = 2000;
-                break;
-            default:
-                break;
-        }
-        employeeId = accessSeries + numberOfEmployees;
-        rank = Integer.parseInt(pRank);// Convert rank from string to integer
+        position = pPosition;
+        employeeId = pEmployeeId;
+        rank = pRank;
         promotionDue = false;
-        String[] dateInfo = pDate.split("/");
+        dateOfLastPromotion = pDate;
+        healthInsurance = pInsurance;
+        if (position.getTopRank() == rank)
+            setReachedTopOfScale(dateOfLastPromotion);// if by the time an employee is initialized, they are already at the top of their payScale, we set the reachedTopOfScale to the date of their last promotion
+    }
 
-        // Parse date of last promotion from string to LocalDate
-        dateOfLastPromotion = LocalDate.of(2000 + Integer.parseInt(dateInfo[2]),
+    /**
+     * Parses a date of last promotion written as day/month/two-digit year.
+     *
+     * @param date the date, such as "18/11/24"
+     * @return the date in the 2000s
+     */
+    static LocalDate parseDate(String date) {
+        String[] dateInfo = date.split("/");
+        return LocalDate.of(2000 + Integer.parseInt(dateInfo[2]),
                 Integer.parseInt(dateInfo[1]), Integer.parseInt(dateInfo[0]));
+    }
 
-        // Determine health insurance cost based on the level provided
-        switch (pInsurance.toLowerCase()) {
+    /**
+     * Determines the monthly health insurance cost of the level named in the employee details.
+     *
+     * @param level the level of health insurance, such as "Premium"
+     * @return the cost in cents, or 0 if the level is unknown
+     */
+    static long insuranceCost(String level) {
+        switch (level.toLowerCase()) {
             case "basic":
-                healthInsurance = 40;
-                break;
+                return 4000;
             case "standard":
-                healthInsurance = 60;
-                break;
+                return 6000;
             case "enhanced":
-                healthInsurance = 100;
-                break;
+                return 10000;
             case "premium":
-                healthInsurance = 140;
+                return 14000;
+            default:
+                return 0;
         }
-        numberOfEmployees++;
-        historicalPayslips = new ArrayList<>(1);
-        if (position.getPayScale().size() == rank)
-            setReachedTopOfScale(dateOfLastPromotion);// if by the time an employee is initialized, they are already at the top of their payScale, we set the reachedTopOfScale to the date of their last promotion
+    }
+
+    /**
+     * Gets the first ID number of the series employees in the given position are numbered from.
+     * The first digit of an ID identifies the type of user: 1 for basic employees, 2 for administrators and 3 for HR.
+     *
+     * @param position the employee's position
+     * @return 3000 for Human Resources, 2000 for Administrative and 1000 for every other category
+     */
+    public static int accessSeriesOf(Position position) {
+        switch (position.getCategory()) {
+            case "Human Resources":
+                return 3000;
+            case "Administrative":
+                return 2000;
+            default:
+                return 1000;
+        }
+    }
+
+    /**
+     * Makes the ID of an employee from their position and their employee number, which counts every employee
+     * created in the payroll system whatever their position. The first 1000 employees get a four digit ID,
+     * their number added to the first ID of their position's series. Later employees get a nine digit ID,
+     * the series' user type digit followed by their number padded to eight digits, so the series never overlap
+     * and no two employees share an ID.
+     *
+     * @param position the employee's position
+     * @param number   the employee number, starting at 0
+     * @return the employee's ID
+     * @throws PayRollException If the number is too large to fit in a nine digit ID.
+     */
+    public static int idOf(Position position, int number) {
+        int series = accessSeriesOf(position);
+        if (number < 1000) {
+            return series + number;
+        }
+        if (number >= LONG_ID_SERIES) {
+            throw new PayRollException("No more employee IDs are available after employee number " + (number - 1));
+        }
+        return series / 1000 * LONG_ID_SERIES + number;
+    }
+
+    /**
+     * Gets the employee number an ID was made from by {@link #idOf(Position, int)}.
+     *
+     * @param employeeId the ID of the employee
+     * @return the employee number, starting at 0
+     */
+    public static int numberOf(int employeeId) {
+        return employeeId < LONG_ID_SERIES ? employeeId % 1000 : employeeId % LONG_ID_SERIES;
+    }
+
+    /**
+     * Gets the type of user an ID belongs to, from the first digit of a four or nine digit ID.
+     *
+     * @param employeeId the ID of the employee
+     * @return 1 for basic employees, 2 for administrators and 3 for HR
+     */
+    public static int userTypeOf(int employeeId) {
+        return employeeId < LONG_ID_SERIES ? employeeId / 1000 : employeeId / LONG_ID_SERIES;
     }
 
     /**
@@ -96,6 +176,15 @@ public abstract class Employee {
         return name;
     }
 
+    /**
+     * Gets the employee's email address, generated from their name rather than stored with every employee.
+     *
+     * @return the employee's UL email address
+     */
+    public String getEmail() {
+        return name.toLowerCase().replace(" ", ".") + "@ul.ie";
+    }
+
     /**
      * Gets the employee's phone number.
      *
@@ -111,16 +200,36 @@ public abstract class Employee {
      * @return the position object associated with the employee
      */
     public Position getPosition() {
-        return position;
+        return columns == null ? position : columns.getPosition(row);
     }
 
     /**
      * Gets the cost of the employee's health insurance.
      *
-     * @return the monthly health insurance cost for the employee
+     * @return the monthly health insurance cost for the employee in cents
+     */
+    public long getHealthInsurance() {
+        return columns == null ? healthInsurance : columns.getHealthInsurance(row);
+    }
+
+    /**
+     * Gets the name of the employee's health insurance tier.
+     *
+     * @return the tier name as written in the employee CSV files, or "NULL" if the tier is unknown
      */
-    public double getHealthInsurance() {
-        return healthInsurance;
+    public String getHealthInsuranceTier() {
+        switch ((int) getHealthInsurance()) {
+            case 4000:
+                return "Basic";
+            case 6000:
+                return "Standard";
+            case 10000:
+                return "Enhanced";
+            case 14000:
+                return "Premium";
+            default:
+                return "NULL";
+        }
     }
 
     /**
@@ -129,7 +238,7 @@ public abstract class Employee {
      * @return the rank of the employee within their position's pay scale
      */
     public int getRank() {
-        return rank;
+        return columns == null ? rank : columns.getRank(row);
     }
 
     /**
@@ -138,7 +247,7 @@ public abstract class Employee {
      * @return the date the employee reached the top rank, or null if not reached
      */
     public LocalDate getReachedTopOfScale() {
-        return reachedTopOfScale;
+        return columns == null ? reachedTopOfScale : columns.getReachedTopOfScale(row);
     }
 
     /**
@@ -147,7 +256,7 @@ public abstract class Employee {
      * @return the LocalDate object representing the last promotion date
      */
     public LocalDate getLastPromotionDate() {
-        return dateOfLastPromotion;
+        return columns == null ? dateOfLastPromotion : columns.getLastPromotionDate(row);
     }
 
     /**
@@ -156,16 +265,7 @@ public abstract class Employee {
      * @return true if the employee is due for a promotion, false otherwise
      */
     public Boolean getPromotionDue() {
-        return promotionDue;
-    }
-
-    /**
-     * Gets the employee's historical payslips.
-     *
-     * @return a list of all payslips generated for the employee
-     */
-    public ArrayList<Payslip> getHistoricalPayslips() {
-        return historicalPayslips;
+        return columns == null ? promotionDue : columns.isPromotionDue(row);
     }
 
     /**
@@ -180,7 +280,7 @@ public abstract class Employee {
         } else {
             role = "Full-Time ";
         }
-        switch (position.getCategory()) {
+        switch (getPosition().getCategory()) {
             case "Administrative":
                 role += "Administrator";
                 break;
@@ -200,7 +300,11 @@ public abstract class Employee {
      * @param dateOfLastPromotion the date of the last promotion
      */
     public void setDateOfLastPromotion(LocalDate dateOfLastPromotion) {
-        this.dateOfLastPromotion = dateOfLastPromotion;
+        if (columns == null) {
+            this.dateOfLastPromotion = dateOfLastPromotion;
+        } else {
+            columns.setLastPromotionDate(row, dateOfLastPromotion);
+        }
     }
 
     /**
@@ -209,7 +313,11 @@ public abstract class Employee {
      * @param position the new position
      */
     public void setPosition(Position position) {
-        this.position = position;
+        if (columns == null) {
+            this.position = position;
+        } else {
+            columns.setPosition(row, position);
+        }
     }
 
     /**
@@ -236,7 +344,12 @@ public abstract class Employee {
      * @param rank the new rank
      */
     public void setRank(int rank) {
-        this.rank = Math.min(rank, position.getPayScale().size());
+        int newRank = Math.min(rank, getPosition().getTopRank());
+        if (columns == null) {
+            this.rank = newRank;
+        } else {
+            columns.setRank(row, newRank);
+        }
     }
 
     /**
@@ -245,7 +358,11 @@ public abstract class Employee {
      * @param y the date the employee reached the top of the scale
      */
     public void setReachedTopOfScale(LocalDate y) {
-        this.reachedTopOfScale = y;
+        if (columns == null) {
+            this.reachedTopOfScale = y;
+        } else {
+            columns.setReachedTopOfScale(row, y);
+        }
     }
 
     /**
@@ -254,46 +371,80 @@ public abstract class Employee {
      * @param b true if promotion is due, false otherwise
      */
     public void setPromotionDue(boolean b) {
-        this.promotionDue = b;
+        if (columns == null) {
+            this.promotionDue = b;
+        } else {
+            columns.setPromotionDue(row, b);
+        }
     }
 
     /**
-     * Adds a payslip to the employee's historical records if it doesn't already exist.
+     * Gets the columns the employee's details are stored in.
      *
-     * @param p the payslip to be added
+     * @return the columns, or null if the details are held in the employee's own fields
      */
-    public void addPayslip(Payslip p) {
-        boolean exists = false;
-        for (Payslip ps : historicalPayslips) {
-            if (p.getPayDate().equals(ps.getPayDate())) {
-                exists = true;
-                break;
-            }
-        }
-        if (!exists) {
-            historicalPayslips.add(p);
-        }
+    EmployeeColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the employee's row in their columns.
+     *
+     * @return the row, only meaningful while the employee is stored in columns
+     */
+    int getRow() {
+        return row;
+    }
+
+    /**
+     * Attaches the employee to a row of a columnar store that already holds their details,
+     * or moves them to a new row of the same store. The objects held in the employee's own fields are released.
+     *
+     * @param columns the columns holding the employee's details
+     * @param row     the employee's row
+     */
+    void attach(EmployeeColumns columns, int row) {
+        this.columns = columns;
+        this.row = row;
+        dateOfLastPromotion = null;
+        reachedTopOfScale = null;
+        promotionDue = null;
+    }
+
+    /**
+     * Copies the employee's details out of their columns back into their own fields and detaches them.
+     */
+    void detach() {
+        rank = getRank();
+        position = getPosition();
+        dateOfLastPromotion = getLastPromotionDate();
+        reachedTopOfScale = getReachedTopOfScale();
+        healthInsurance = getHealthInsurance();
+        promotionDue = getPromotionDue();
+        columns = null;
     }
 
     /**
      * Calculates the base pay of the employee. This method is implemented in
      * subclasses for full-time and part-time employees.
      *
-     * @return the base pay of the employee
+     * @return the base pay of the employee in cents
      */
-    public abstract double calculateBasePay();
+    public abstract long calculateBasePay();
 
 
     /**
      * Increments the rank of the employee by 1. If the employee reaches the top of
      * the pay scale, records the date they reached the top rank.
+     *
+     * @param today the payroll system's current date
      */
-    public void incrementRank() {
-        ArrayList<Double> salaryScale = getPosition().getPayScale();
-        if (getRank() < salaryScale.size()) {// Check if not at top rank
-            if (getRank() == salaryScale.size() - 1) {
+    public void incrementRank(LocalDate today) {
+        int topRank = getPosition().getTopRank();
+        if (getRank() < topRank) {// Check if not at top rank
+            if (getRank() == topRank - 1) {
                 setRank(getRank() + 1);
-                setReachedTopOfScale(PayRollSystem.simulatedDate);
+                setReachedTopOfScale(today);
             } else {
                 setRank(getRank() + 1);
             }
@@ -308,15 +459,15 @@ public abstract class Employee {
     @Override
     public String toString() {
         return String.format(
-                "Employee ID: %d\nName: %s\nEmail: %s\nRank: %d\nCategory: %s\nPosition: %s\nLast Promotion Date: %s\nHealth Insurance: %.2f",
+                "Employee ID: %d\nName: %s\nEmail: %s\nRank: %d\nCategory: %s\nPosition: %s\nLast Promotion Date: %s\nHealth Insurance: %s",
                 employeeId,
                 name,
-                email,
-                rank,
-                position.getCategory(),
-                position.getTitle(),
-                dateOfLastPromotion.format(PayRollSystem.DATE_FORMAT),
-                healthInsurance
+                getEmail(),
+                getRank(),
+                getPosition().getCategory(),
+                getPosition().getTitle(),
+                getLastPromotionDate().format(PayRollSystem.DATE_FORMAT),
+                Money.format(getHealthInsurance())
         );
     }
 }
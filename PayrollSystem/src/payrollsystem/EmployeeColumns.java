@@ -0,0 +1,520 @@
+package payrollsystem;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A columnar store of the employee details read and changed by the monthly payroll run and the October rank
+ * increment, held as one primitive array per detail instead of in fields spread across each employee's objects.
+ * Each employee added takes the next row of every column, so a pass over the workforce reads each column
+ * from start to end rather than following references from one employee to the next. Removing an employee moves
+ * the last row into their place, so rows are not always in the order the employees were added.
+ *
+ * <p>Adding an employee attaches it to its row: from then on its getters and setters read and write the columns,
+ * and the date objects it held are released. Removing it copies its details back into the employee.
+ * Like the employees' own fields, the columns are guarded by the locks of the payroll system that owns them.</p>
+ *
+ * <p>The columns can be kept in step with an {@link EmployeeRecordFile}, whose record i is row i: every change
+ * to a row, an added row or a removed row is then also written to the file in place.</p>
+ */
+public final class EmployeeColumns {
+    private static final int MIN_CAPACITY = 16;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long[] TIER_COSTS = {4000, 6000, 10000, 14000, 0};
+    private final PositionCatalog positionCatalog;
+    private final Position[] positions;
+    private final int[] topRanks;
+    private Employee[] owners;
+    private boolean[] partTime;
+    private short[] rank;
+    private short[] positionOrdinal;
+    private byte[] insuranceTier;
+    private boolean[] promotionDue;
+    private int[] lastPromotionDay;
+    private int[] reachedTopDay;
+    private int[] lastClaimDay;
+    private double[] hoursWorked;
+    private double[] unpaidHours;
+    private int size;
+    private EmployeeRecordFile records;
+
+    /**
+     * Constructs an empty EmployeeColumns sized to hold the given number of employees without growing.
+     *
+     * @param positionCatalog   the positions the employees hold, stored in the columns by ordinal
+     * @param expectedEmployees the number of employees expected to be stored
+     */
+    public EmployeeColumns(PositionCatalog positionCatalog, int expectedEmployees) {
+        this.positionCatalog = positionCatalog;
+        List<Position> positionList = positionCatalog.getPositions();
+        positions = positionList.toArray(new Position[0]);
+        topRanks = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            topRanks[i] = positions[i].getTopRank();
+        }
+        int capacity = Math.max(MIN_CAPACITY, expectedEmployees);
+        owners = new Employee[capacity];
+        partTime = new boolean[capacity];
+        rank = new short[capacity];
+        positionOrdinal = new short[capacity];
+        insuranceTier = new byte[capacity];
+        promotionDue = new boolean[capacity];
+        lastPromotionDay = new int[capacity];
+        reachedTopDay = new int[capacity];
+        lastClaimDay = new int[capacity];
+        hoursWorked = new double[capacity];
+        unpaidHours = new double[capacity];
+    }
+
+    /**
+     * Estimates the memory taken by one row of the columns, including the reference to the row's employee.
+     *
+     * @return the number of bytes used per employee, assuming compressed 4 byte references
+     */
+    public static int bytesPerRow() {
+        // owner, part-time flag, rank, position, insurance tier, promotion flag, three dates and two hour counts
+        return 4 + 1 + 2 + 2 + 1 + 1 + 3 * 4 + 2 * 8;
+    }
+
+    /**
+     * Moves an employee's details into a new row at the end of the columns and attaches the employee to it.
+     *
+     * @param e the employee to be added, which must not already belong to a set of columns
+     * @throws PayRollException If the employee's position or rank cannot be stored in the columns.
+     */
+    public void add(Employee e) {
+        if (e.getColumns() != null) {
+            throw new PayRollException("Employee " + e.getEmployeeId() + " is already stored in columns");
+        }
+        if (e.getRank() < Short.MIN_VALUE || e.getRank() > Short.MAX_VALUE) {
+            throw new PayRollException("Rank out of range for employee " + e.getEmployeeId() + ": " + e.getRank());
+        }
+        int ordinal = positionCatalog.getOrdinalOfName(e.getPosition().getTitle());
+        if (size == owners.length) {
+            grow(owners.length << 1);
+        }
+        int row = size;
+        owners[row] = e;
+        rank[row] = (short) e.getRank();
+        positionOrdinal[row] = (short) ordinal;
+        insuranceTier[row] = tierOf(e.getHealthInsurance());
+        promotionDue[row] = e.getPromotionDue();
+        lastPromotionDay[row] = toDay(e.getLastPromotionDate());
+        reachedTopDay[row] = toDay(e.getReachedTopOfScale());
+        if (e instanceof PartTimeEmployee) {
+            PartTimeEmployee pt = (PartTimeEmployee) e;
+            partTime[row] = true;
+            lastClaimDay[row] = toDay(pt.getLastClaimDate());
+            hoursWorked[row] = pt.getHoursWorked();
+            unpaidHours[row] = pt.getUnpaidHours();
+        } else {
+            partTime[row] = false;
+            lastClaimDay[row] = NO_DATE;
+            hoursWorked[row] = 0;
+            unpaidHours[row] = 0;
+        }
+        if (records != null) {
+            records.append(e);
+        }
+        size++;
+        e.attach(this, row);
+    }
+
+    /**
+     * Removes an employee's row, copying their details back into the employee first.
+     * The last row is moved into its place, in the same way as the record file's last record, so a removal
+     * takes the same time however many employees there are.
+     *
+     * @param e the employee to be removed
+     * @return true if the employee was stored in these columns
+     */
+    public boolean remove(Employee e) {
+        if (e.getColumns() != this) return false;
+        int row = e.getRow();
+        e.detach();
+        if (records != null) {
+            records.remove(row);
+        }
+        int last = size - 1;
+        if (row != last) {
+            owners[row] = owners[last];
+            partTime[row] = partTime[last];
+            rank[row] = rank[last];
+            positionOrdinal[row] = positionOrdinal[last];
+            insuranceTier[row] = insuranceTier[last];
+            promotionDue[row] = promotionDue[last];
+            lastPromotionDay[row] = lastPromotionDay[last];
+            reachedTopDay[row] = reachedTopDay[last];
+            lastClaimDay[row] = lastClaimDay[last];
+            hoursWorked[row] = hoursWorked[last];
+            unpaidHours[row] = unpaidHours[last];
+            owners[row].attach(this, row);
+        }
+        owners[last] = null;
+        size = last;
+        return true;
+    }
+
+    /**
+     * Keeps a record file in step with the columns from now on. The file must already hold a record
+     * for every row, in the same order, such as after writing every employee to it or reading them from it.
+     *
+     * @param records the record file to be kept up to date
+     * @throws PayRollException If the file does not hold the same number of employees as the columns.
+     */
+    public void setRecordFile(EmployeeRecordFile records) {
+        if (records.size() != size) {
+            throw new PayRollException("Employee record file holds " + records.size() + " employees, expected " + size);
+        }
+        this.records = records;
+    }
+
+    /**
+     * Returns the number of employees stored.
+     *
+     * @return the number of rows in use
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the employee stored in the given row.
+     *
+     * @param row the row of the employee
+     * @return the employee attached to that row
+     */
+    public Employee getEmployee(int row) {
+        return owners[row];
+    }
+
+    /**
+     * Moves every eligible employee up their salary scale by one rank, reading and writing only the columns.
+     * Employees promoted earlier in the current year, and employees already at the top of their scale, are skipped.
+     *
+     * @param today        the payroll system's current date, recorded for employees reaching the top of their scale
+     * @param onRankChange called with each employee whose rank changed
+     * @return the number of employees whose rank changed
+     */
+    public int incrementRanks(LocalDate today, Consumer<Employee> onRankChange) {
+        int startOfYear = (int) today.withDayOfYear(1).toEpochDay();
+        int todayDay = (int) today.toEpochDay();
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            if (lastPromotionDay[i] >= startOfYear) continue;// promoted this year already
+            int topRank = topRanks[positionOrdinal[i]];
+            if (rank[i] < topRank) {
+                rank[i]++;
+                if (rank[i] == topRank) {
+                    reachedTopDay[i] = todayDay;
+                }
+                if (records != null) {
+                    records.setRank(i, rank[i]);
+                    records.setReachedTopDay(i, reachedTopDay[i]);
+                }
+                if (partTime[i]) {
+                    ((PartTimeEmployee) owners[i]).setAnnualSalary();// the hourly rate follows the new rank
+                }
+                changed++;
+                onRankChange.accept(owners[i]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Builds the payslip for the employee in one row, reading their pay details from the columns.
+     * Follows the same rules as {@link PayrollRunEngine#payEmployee}: part-time employees are only paid
+     * for a claim submitted on time, or for hours left over from a late claim made before this pay period.
+     *
+     * @param row       the row of the employee to be paid
+     * @param payPeriod a date in the month being paid
+     * @param taxRules  the tax rules the deductions are worked out with
+     * @return the new payslip, or null if the employee is not paid this period
+     */
+    Payslip pay(int row, LocalDate payPeriod, TaxRuleCatalog taxRules) {
+        Employee e = owners[row];
+        Position position = positions[positionOrdinal[row]];
+        LocalDate payDate = LocalDate.of(payPeriod.getYear(), payPeriod.getMonthValue(), 25);
+        Payslip p;
+        if (partTime[row]) {
+            PartTimeEmployee pt = (PartTimeEmployee) e;
+            double unpaid = unpaidHours[row];
+            int claimDay = lastClaimDay[row];
+            if (!((claimDay != NO_DATE && ClaimDeadlines.isOnTime(claimDay, ClaimDeadlines.epochMonth(payPeriod))) ||
+                    (unpaid != 0 && claimDay < payPeriod.toEpochDay()))) {
+                return null;
+            }
+            double hours = hoursWorked[row] + unpaid;
+            long hourlyRate = pt.getHourlyRate();
+            p = new Payslip(e, payDate, rank[row], position.getTitle(), Money.times(hourlyRate, hours),
+                    hours, hourlyRate, TIER_COSTS[insuranceTier[row]], taxRules);
+            setHoursWorked(row, 0);
+            setUnpaidHours(row, 0);
+        } else {
+            long basePay = Money.divide(position.getSalary(rank[row]), 12);
+            p = new Payslip(e, payDate, rank[row], position.getTitle(), basePay, 0, 0,
+                    TIER_COSTS[insuranceTier[row]], taxRules);
+        }
+        return p;
+    }
+
+    /**
+     * Gets the rank stored in a row.
+     *
+     * @param row the employee's row
+     * @return the employee's rank
+     */
+    int getRank(int row) {
+        return rank[row];
+    }
+
+    /**
+     * Sets the rank stored in a row.
+     *
+     * @param row   the employee's row
+     * @param value the new rank, which must fit in a short
+     */
+    void setRank(int row, int value) {
+        rank[row] = (short) value;
+        if (records != null) {
+            records.setRank(row, value);
+        }
+    }
+
+    /**
+     * Gets the position stored in a row.
+     *
+     * @param row the employee's row
+     * @return the employee's position
+     */
+    Position getPosition(int row) {
+        return positions[positionOrdinal[row]];
+    }
+
+    /**
+     * Sets the position stored in a row.
+     *
+     * @param row      the employee's row
+     * @param position the new position, which must be in the catalog the columns were built with
+     * @throws PayRollException If the position is not in the catalog.
+     */
+    void setPosition(int row, Position position) {
+        positionOrdinal[row] = (short) positionCatalog.getOrdinalOfName(position.getTitle());
+        if (records != null) {
+            records.setPositionOrdinal(row, positionOrdinal[row]);
+        }
+    }
+
+    /**
+     * Gets the monthly health insurance cost of the tier stored in a row.
+     *
+     * @param row the employee's row
+     * @return the health insurance cost in cents
+     */
+    long getHealthInsurance(int row) {
+        return TIER_COSTS[insuranceTier[row]];
+    }
+
+    /**
+     * Gets whether the employee in a row is due a promotion.
+     *
+     * @param row the employee's row
+     * @return true if a promotion has been offered
+     */
+    boolean isPromotionDue(int row) {
+        return promotionDue[row];
+    }
+
+    /**
+     * Sets whether the employee in a row is due a promotion.
+     *
+     * @param row   the employee's row
+     * @param value true if a promotion has been offered
+     */
+    void setPromotionDue(int row, boolean value) {
+        promotionDue[row] = value;
+        if (records != null) {
+            records.setPromotionDue(row, value, owners[row].getPromotionPos());
+        }
+    }
+
+    /**
+     * Gets the date of the last promotion stored in a row.
+     *
+     * @param row the employee's row
+     * @return the date of the employee's last promotion
+     */
+    LocalDate getLastPromotionDate(int row) {
+        return toDate(lastPromotionDay[row]);
+    }
+
+    /**
+     * Sets the date of the last promotion stored in a row.
+     *
+     * @param row  the employee's row
+     * @param date the date of the employee's last promotion
+     */
+    void setLastPromotionDate(int row, LocalDate date) {
+        lastPromotionDay[row] = toDay(date);
+        if (records != null) {
+            records.setLastPromotionDay(row, lastPromotionDay[row]);
+        }
+    }
+
+    /**
+     * Gets the date the employee in a row reached the top of their scale.
+     *
+     * @param row the employee's row
+     * @return the date, or null if they have not reached it
+     */
+    LocalDate getReachedTopOfScale(int row) {
+        return toDate(reachedTopDay[row]);
+    }
+
+    /**
+     * Sets the date the employee in a row reached the top of their scale.
+     *
+     * @param row  the employee's row
+     * @param date the date, or null if they have not reached it
+     */
+    void setReachedTopOfScale(int row, LocalDate date) {
+        reachedTopDay[row] = toDay(date);
+        if (records != null) {
+            records.setReachedTopDay(row, reachedTopDay[row]);
+        }
+    }
+
+    /**
+     * Gets the date of the last pay claim stored in a row.
+     *
+     * @param row the employee's row
+     * @return the date of the last claim, or null if no claim has been made
+     */
+    LocalDate getLastClaimDate(int row) {
+        return toDate(lastClaimDay[row]);
+    }
+
+    /**
+     * Sets the date of the last pay claim stored in a row.
+     *
+     * @param row  the employee's row
+     * @param date the date of the last claim
+     */
+    void setLastClaimDate(int row, LocalDate date) {
+        lastClaimDay[row] = toDay(date);
+        if (records != null) {
+            records.setLastClaimDay(row, lastClaimDay[row]);
+        }
+    }
+
+    /**
+     * Gets the hours claimed for the current pay period stored in a row.
+     *
+     * @param row the employee's row
+     * @return the hours worked
+     */
+    double getHoursWorked(int row) {
+        return hoursWorked[row];
+    }
+
+    /**
+     * Sets the hours claimed for the current pay period stored in a row.
+     *
+     * @param row   the employee's row
+     * @param hours the hours worked
+     */
+    void setHoursWorked(int row, double hours) {
+        hoursWorked[row] = hours;
+        if (records != null) {
+            records.setHoursWorked(row, hours);
+        }
+    }
+
+    /**
+     * Gets the hours held over from late claims stored in a row.
+     *
+     * @param row the employee's row
+     * @return the unpaid hours
+     */
+    double getUnpaidHours(int row) {
+        return unpaidHours[row];
+    }
+
+    /**
+     * Sets the hours held over from late claims stored in a row.
+     *
+     * @param row   the employee's row
+     * @param hours the unpaid hours
+     */
+    void setUnpaidHours(int row, double hours) {
+        unpaidHours[row] = hours;
+        if (records != null) {
+            records.setUnpaidHours(row, hours);
+        }
+    }
+
+    /**
+     * Grows every column to the given capacity.
+     *
+     * @param capacity the new number of rows
+     */
+    private void grow(int capacity) {
+        owners = Arrays.copyOf(owners, capacity);
+        partTime = Arrays.copyOf(partTime, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+        positionOrdinal = Arrays.copyOf(positionOrdinal, capacity);
+        insuranceTier = Arrays.copyOf(insuranceTier, capacity);
+        promotionDue = Arrays.copyOf(promotionDue, capacity);
+        lastPromotionDay = Arrays.copyOf(lastPromotionDay, capacity);
+        reachedTopDay = Arrays.copyOf(reachedTopDay, capacity);
+        lastClaimDay = Arrays.copyOf(lastClaimDay, capacity);
+        hoursWorked = Arrays.copyOf(hoursWorked, capacity);
+        unpaidHours = Arrays.copyOf(unpaidHours, capacity);
+    }
+
+    /**
+     * Finds the insurance tier column value of a monthly health insurance cost.
+     *
+     * @param healthInsurance the cost in cents
+     * @return the index of the cost in the tier table, with unknown costs stored as no insurance
+     */
+    static byte tierOf(long healthInsurance) {
+        for (byte i = 0; i < TIER_COSTS.length; i++) {
+            if (TIER_COSTS[i] == healthInsurance) return i;
+        }
+        return (byte) (TIER_COSTS.length - 1);
+    }
+
+    /**
+     * Finds the monthly health insurance cost of an insurance tier column value.
+     *
+     * @param tier the index of the cost in the tier table
+     * @return the cost in cents
+     */
+    static long tierCost(byte tier) {
+        return TIER_COSTS[tier];
+    }
+
+    /**
+     * Converts a date to the epoch day stored in a date column.
+     *
+     * @param date the date, or null
+     * @return the epoch day, or NO_DATE for null
+     */
+    static int toDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    /**
+     * Converts an epoch day stored in a date column back to a date.
+     *
+     * @param day the epoch day, or NO_DATE
+     * @return the date, or null for NO_DATE
+     */
+    static LocalDate toDate(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+}
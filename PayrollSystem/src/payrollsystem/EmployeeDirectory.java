@@ -0,0 +1,154 @@
+package payrollsystem;
+
+/**
+ * An index of employees keyed by their employee ID.
+ * Uses an open addressing hash table over a primitive int array so that lookups by ID
+ * take constant time and do not box the key, regardless of the size of the workforce.
+ */
+public class EmployeeDirectory {
+    private static final int MIN_CAPACITY = 16;
+    private int[] keys;
+    private Employee[] values;
+    private int size;
+
+    /**
+     * Constructs an empty EmployeeDirectory.
+     */
+    public EmployeeDirectory() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty EmployeeDirectory sized to hold the given number of employees without resizing.
+     *
+     * @param expectedEmployees the number of employees expected to be stored
+     */
+    public EmployeeDirectory(int expectedEmployees) {
+        int capacity = MIN_CAPACITY;
+        // keep the table at most half full
+        while (capacity < expectedEmployees * 2) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Employee[capacity];
+    }
+
+    /**
+     * Adds an employee to the directory.
+     *
+     * @param e the employee to be added
+     * @throws PayRollException If another employee is already stored under the same ID.
+     */
+    public void add(Employee e) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int slot = findSlot(e.getEmployeeId());
+        if (values[slot] != null) {
+            throw new PayRollException("Duplicate employee ID " + e.getEmployeeId() + ": " + values[slot].getName()
+                    + " and " + e.getName());
+        }
+        keys[slot] = e.getEmployeeId();
+        values[slot] = e;
+        size++;
+    }
+
+    /**
+     * Removes the employee with the given ID from the directory.
+     *
+     * @param id the ID number of the employee to be removed
+     * @return the removed employee, or null if no employee had that ID
+     */
+    public Employee remove(int id) {
+        int mask = keys.length - 1;
+        int slot = findSlot(id);
+        Employee removed = values[slot];
+        if (removed == null) return null;
+        values[slot] = null;
+        size--;
+
+        // shift back any entries that probed past the freed slot so that lookups still find them
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the employee with the given ID.
+     *
+     * @param id the ID number of the employee
+     * @return the employee with that ID, or null if no such employee exists
+     */
+    public Employee get(int id) {
+        return values[findSlot(id)];
+    }
+
+    /**
+     * Checks whether an employee with the given ID exists in the directory.
+     *
+     * @param id the ID number to look for
+     * @return true if the ID is in the directory, false otherwise
+     */
+    public boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Returns the number of employees in the directory.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot holding the given ID, or the empty slot where it would be inserted.
+     *
+     * @param id the ID number to look for
+     * @return the index of the slot in the table
+     */
+    private int findSlot(int id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (values[slot] != null && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Rebuilds the table with a new capacity, reinserting every stored employee.
+     *
+     * @param capacity the new table capacity, a power of two
+     */
+    private void resize(int capacity) {
+        Employee[] oldValues = values;
+        keys = new int[capacity];
+        values = new Employee[capacity];
+        size = 0;
+        for (Employee e : oldValues) {
+            if (e != null) add(e);
+        }
+    }
+
+    /**
+     * Spreads the bits of an ID so that sequential IDs do not cluster in the table.
+     *
+     * @param id the ID number to hash
+     * @return the mixed hash of the ID
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
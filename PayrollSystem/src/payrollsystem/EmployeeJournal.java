@@ -0,0 +1,499 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An append-only journal of changes to the workforce, kept alongside a snapshot of the current employee details.
+ * Each add, removal, rank change and promotion appends one short record instead of rewriting every employee.
+ * Once enough records have built up the journal is compacted: a fresh snapshot is written on a background thread
+ * and the records it covers are discarded once it is in place.
+ *
+ * <p>The snapshot starts with a line holding the number the next new employee's ID is made from, followed by one
+ * row per employee: their ID, the date they reached the top of their scale if they have, and their details as in
+ * the employee details file. On startup {@link #recover} reads the snapshot back and replays every record written
+ * since, so no change that was committed to the journal is lost if the program stops without a final snapshot.</p>
+ *
+ * <p>A commit forces the journal to disk, so committed changes also survive the machine stopping. A new snapshot is
+ * forced to disk, and the rename that puts it in place forced with its directory, before the records it covers
+ * are deleted.</p>
+ */
+public class EmployeeJournal implements AutoCloseable {
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    private static final String HEADER = "nextEmployeeNumber,";
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path compactingFile;
+    private final ExecutorService compactor;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private int recordsSinceSnapshot;
+    private int nextEmployeeNumber;
+    private Future<?> pendingCompaction;
+
+    /**
+     * Constructs a journal writing to the given snapshot file, with the journal kept next to it.
+     *
+     * @param snapshotFile the path of the employee details snapshot, such as CurrentEmployeeDetails.csv
+     */
+    public EmployeeJournal(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        String name = snapshotFile.getFileName().toString().replaceFirst("\\.csv$", "");
+        this.journalFile = snapshotFile.resolveSibling(name + ".journal");
+        this.compactingFile = snapshotFile.resolveSibling(name + ".journal.compacting");
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "employee-journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Reads the employees back from the snapshot and replays onto them every record written since: first the
+     * records set aside for a snapshot that may never have been moved into place, then the journal itself.
+     * Every record either adds an employee not yet present or sets absolute values, so replaying records a finished
+     * snapshot already covers leaves the employees unchanged. A record that cannot be parsed is reported and skipped.
+     *
+     * @param loader          builds the employees under the IDs they were saved with
+     * @param positionCatalog the positions promotions are looked up in
+     * @param employees       the list the recovered employees are added to, in the order they were saved
+     * @return the number the next new employee's ID is made from, or -1 if there is no snapshot written by a journal
+     * @throws IOException If a file cannot be read.
+     */
+    public int recover(EmployeeLoader loader, PositionCatalog positionCatalog, List<Employee> employees)
+            throws IOException {
+        LinkedHashMap<Integer, Employee> recovered = new LinkedHashMap<>();
+        int next;
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith(HEADER)) return -1;
+            next = Integer.parseInt(line.substring(HEADER.length()).trim());
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    int idEnd = line.indexOf(',');
+                    int topEnd = line.indexOf(',', idEnd + 1);
+                    if (idEnd < 0 || topEnd < 0) {
+                        throw new PayRollException("Fault in employee snapshot formatting");
+                    }
+                    int id = Integer.parseInt(line.substring(0, idEnd));
+                    Employee e = loader.parseEmployee(id, line.substring(topEnd + 1));
+                    if (topEnd > idEnd + 1) {
+                        String reachedTop = line.substring(idEnd + 1, topEnd);
+                        e.setReachedTopOfScale(LocalDate.parse(reachedTop, PayRollSystem.DATE_FORMAT));
+                    }
+                    recovered.put(id, e);
+                    next = Math.max(next, Employee.numberOf(id) + 1);
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping bad employee on line " + lineNumber + " of " + snapshotFile);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        next = replay(compactingFile, loader, positionCatalog, recovered, next);
+        next = replay(journalFile, loader, positionCatalog, recovered, next);
+        employees.addAll(recovered.values());
+        return next;
+    }
+
+    /**
+     * Sets the number the next new employee's ID will be made from, saved at the top of each snapshot.
+     * The journal keeps it up to date from the employees it records being added.
+     *
+     * @param nextEmployeeNumber the number of employees created so far
+     */
+    public void setNextEmployeeNumber(int nextEmployeeNumber) {
+        this.nextEmployeeNumber = nextEmployeeNumber;
+    }
+
+    /**
+     * Starts the journal from the given workforce, onto which any records left by an earlier run must already
+     * have been replayed by {@link #recover}. A fresh snapshot is written, and the old journal files are only
+     * deleted once it has been moved into place.
+     *
+     * @param employees the employees currently in the system
+     */
+    public void open(List<Employee> employees) {
+        compact(employees);
+    }
+
+    /**
+     * Gets the files holding records not yet covered by a snapshot: the journal itself, and the journal set aside
+     * while a snapshot is being written. Neither exists once a final snapshot has been written.
+     *
+     * @return the paths of the journal files, whether or not they exist
+     */
+    public List<Path> getJournalFiles() {
+        return Arrays.asList(journalFile, compactingFile);
+    }
+
+    /**
+     * Records that an employee was added to the system.
+     *
+     * @param e the new employee
+     */
+    public void recordAdd(Employee e) {
+        nextEmployeeNumber = Math.max(nextEmployeeNumber, Employee.numberOf(e.getEmployeeId()) + 1);
+        append(addRecord(Integer.toString(e.getEmployeeId()), toCsvLine(e)));
+    }
+
+    /**
+     * Formats the record of an employee being added, so a journal can be written for employees that were never
+     * loaded, such as those split off into a shard under the IDs they had before. A record with an empty ID
+     * is reported and skipped when it is replayed.
+     *
+     * @param employeeId the employee's ID
+     * @param details    the employee's row of the employee details file
+     * @return the journal record
+     */
+    public static String addRecord(String employeeId, String details) {
+        return "ADD," + employeeId + "," + details;
+    }
+
+    /**
+     * Formats the first line of a snapshot, which holds the number the next new employee's ID is made from.
+     * A snapshot of that line alone, followed by a journal of added employees, holds the same workforce as a
+     * snapshot with a row for each of them.
+     *
+     * @param nextEmployeeNumber the number of employees created so far
+     * @return the first line of the snapshot
+     */
+    public static String snapshotHeader(int nextEmployeeNumber) {
+        return HEADER + nextEmployeeNumber;
+    }
+
+    /**
+     * Records that an employee was removed from the system.
+     *
+     * @param e the removed employee
+     */
+    public void recordRemove(Employee e) {
+        append("REMOVE," + e.getEmployeeId());
+    }
+
+    /**
+     * Records an employee's new rank, such as after the annual increment, and the date they reached the top
+     * of their scale if they have.
+     *
+     * @param e the employee whose rank changed
+     */
+    public void recordRankChange(Employee e) {
+        LocalDate reachedTop = e.getReachedTopOfScale();
+        append("RANK," + e.getEmployeeId() + "," + e.getRank()
+                + (reachedTop == null ? "" : "," + reachedTop.format(PayRollSystem.DATE_FORMAT)));
+    }
+
+    /**
+     * Records an employee's new position, rank and date of promotion.
+     *
+     * @param e the promoted employee
+     */
+    public void recordPromotion(Employee e) {
+        append("PROMOTION," + e.getEmployeeId() + "," + e.getPosition().getTitle() + "," + e.getRank() + ","
+                + e.getLastPromotionDate().format(PayRollSystem.DATE_FORMAT));
+    }
+
+    /**
+     * Makes the records appended so far durable by forcing the journal to disk, and compacts the journal if it has
+     * grown past the threshold.
+     * The threshold scales with the workforce, so the cost of compaction is spread over at least as many records.
+     *
+     * @param employees the employees currently in the system, used if a new snapshot is needed
+     */
+    public void commit(List<Employee> employees) {
+        try {
+            if (writer != null) {
+                writer.flush();
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to the employee journal.");
+            e.printStackTrace();
+        }
+        if (recordsSinceSnapshot >= Math.max(MIN_COMPACTION_THRESHOLD, employees.size())) {
+            compact(employees);
+        }
+    }
+
+    /**
+     * Starts writing a new snapshot of the given employees in the background.
+     * The rows are formatted straight away so later changes cannot leak into the snapshot,
+     * and the current journal is set aside until the snapshot covering it has been written.
+     * If an earlier snapshot never made it into place, the journal is added to the records already set aside
+     * rather than replacing them.
+     *
+     * @param employees the employees currently in the system
+     */
+    public void compact(List<Employee> employees) {
+        awaitCompaction();
+        String[] lines = new String[employees.size() + 1];
+        lines[0] = snapshotHeader(nextEmployeeNumber);
+        for (int i = 1; i < lines.length; i++) {
+            lines[i] = toSnapshotLine(employees.get(i - 1));
+        }
+        try {
+            closeWriter();
+            if (Files.exists(journalFile)) {
+                if (Files.exists(compactingFile)) {
+                    try (FileChannel compacting = FileChannel.open(compactingFile, StandardOpenOption.APPEND);
+                         OutputStream out = Channels.newOutputStream(compacting)) {
+                        Files.copy(journalFile, out);
+                        compacting.force(false);
+                    }
+                    Files.delete(journalFile);
+                } else {
+                    Files.move(journalFile, compactingFile);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error rotating the employee journal.");
+            e.printStackTrace();
+        }
+        recordsSinceSnapshot = 0;
+        pendingCompaction = compactor.submit(() -> writeSnapshot(lines));
+    }
+
+    /**
+     * Waits for any snapshot being written in the background to finish.
+     */
+    public void awaitCompaction() {
+        if (pendingCompaction == null) return;
+        try {
+            pendingCompaction.get();
+        } catch (Exception e) {
+            System.err.println("Error compacting the employee journal.");
+            e.printStackTrace();
+        }
+        pendingCompaction = null;
+    }
+
+    /**
+     * Writes a final snapshot of the given employees and stops the background compactor.
+     *
+     * @param employees the employees currently in the system
+     */
+    public void close(List<Employee> employees) {
+        compact(employees);
+        close();
+    }
+
+    /**
+     * Flushes the journal, waits for any snapshot in progress and stops the background compactor.
+     */
+    @Override
+    public void close() {
+        awaitCompaction();
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            System.err.println("Error closing the employee journal.");
+            e.printStackTrace();
+        }
+        compactor.shutdown();
+    }
+
+    /**
+     * Formats an employee as a row of the employee details file.
+     *
+     * @param e the employee to be formatted
+     * @return the comma separated details of the employee
+     */
+    public static String toCsvLine(Employee e) {
+        String line = String.format("%s,%s,%s,%d,%s,%s",
+                e.getName(),
+                e.getPhoneNumber(),
+                e.getPosition().getTitle(),
+                e.getRank(),
+                e.getLastPromotionDate().format(PayRollSystem.DATE_FORMAT),
+                e.getHealthInsuranceTier());
+        if (e instanceof PartTimeEmployee) {
+            line += ",Parttime";
+        }
+        return line;
+    }
+
+    /**
+     * Formats an employee as a row of the snapshot: their ID, the date they reached the top of their scale
+     * or nothing, and their details.
+     *
+     * @param e the employee to be formatted
+     * @return the comma separated row
+     */
+    private static String toSnapshotLine(Employee e) {
+        LocalDate reachedTop = e.getReachedTopOfScale();
+        return e.getEmployeeId() + "," + (reachedTop == null ? "" : reachedTop.format(PayRollSystem.DATE_FORMAT))
+                + "," + toCsvLine(e);
+    }
+
+    /**
+     * Replays the records of one journal file onto the recovered employees.
+     *
+     * @param file            the journal file, which need not exist
+     * @param loader          builds added employees under the IDs they were given
+     * @param positionCatalog the positions promotions are looked up in
+     * @param employees       the recovered employees, keyed by ID in the order they were saved or added
+     * @param next            the number the next new employee's ID is made from, before this file
+     * @return the number the next new employee's ID is made from, after this file
+     * @throws IOException If the file cannot be read.
+     */
+    private static int replay(Path file, EmployeeLoader loader, PositionCatalog positionCatalog,
+                              Map<Integer, Employee> employees, int next) throws IOException {
+        if (!Files.exists(file)) return next;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    int typeEnd = line.indexOf(',');
+                    int idEnd = line.indexOf(',', typeEnd + 1);
+                    String type = line.substring(0, typeEnd);
+                    int id = Integer.parseInt(idEnd < 0 ? line.substring(typeEnd + 1)
+                            : line.substring(typeEnd + 1, idEnd));
+                    String[] fields = idEnd < 0 ? new String[0] : CsvTokenizer.tokenize(line.substring(idEnd + 1));
+                    Employee e = employees.get(id);
+                    switch (type) {
+                        case "ADD":
+                            // already in the snapshot if the compaction covering this record finished
+                            if (e == null) {
+                                employees.put(id, loader.parseEmployee(id, line.substring(idEnd + 1)));
+                            }
+                            next = Math.max(next, Employee.numberOf(id) + 1);
+                            break;
+                        case "REMOVE":
+                            employees.remove(id);
+                            break;
+                        case "RANK":
+                            // an employee missing here was removed by a later record the snapshot already covers
+                            if (e == null) break;
+                            e.setRank(Integer.parseInt(fields[0]));
+                            if (fields.length > 1) {
+                                e.setReachedTopOfScale(LocalDate.parse(fields[1], PayRollSystem.DATE_FORMAT));
+                            }
+                            break;
+                        case "PROMOTION":
+                            if (e == null) break;
+                            e.setPosition(positionCatalog.getPositionOfName(fields[0]));
+                            e.setRank(Integer.parseInt(fields[1]));
+                            e.setDateOfLastPromotion(LocalDate.parse(fields[2], PayRollSystem.DATE_FORMAT));
+                            e.setPromotionDue(false);
+                            break;
+                        default:
+                            throw new PayRollException("Unknown journal record: " + type);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping bad record on line " + lineNumber + " of " + file);
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Appends a single record to the journal, opening it if necessary.
+     *
+     * @param record the record to be appended
+     */
+    private void append(String record) {
+        try {
+            if (writer == null) {
+                channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            }
+            writer.write(record);
+            writer.write(System.lineSeparator());
+            recordsSinceSnapshot++;
+        } catch (IOException e) {
+            System.err.println("Error writing to the employee journal.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file, moves it into place and drops the journal segment it replaces.
+     * The snapshot is forced to disk before the move, and the move before the journal segment is deleted,
+     * so a crash can never leave the records deleted without a snapshot on disk that covers them.
+     *
+     * @param lines the rows of the snapshot
+     */
+    private void writeSnapshot(String[] lines) {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter out = new BufferedWriter(Channels.newWriter(snapshot, StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                out.write(line);
+                out.write(System.lineSeparator());
+            }
+            out.flush();
+            snapshot.force(false);
+        } catch (IOException e) {
+            System.err.println("Error updating the CSV file.");
+            e.printStackTrace();
+            return;
+        }
+        try {
+            try {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory();
+            Files.deleteIfExists(compactingFile);
+        } catch (IOException e) {
+            System.err.println("Error updating the CSV file.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forces the directory holding the snapshot to disk, so the rename that put the latest snapshot in place
+     * survives a crash. Some platforms cannot open a directory, and their renames are left to the file system.
+     */
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(snapshotFile.toAbsolutePath().getParent(),
+                StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // the directory cannot be opened for reading on this platform
+        }
+    }
+
+    /**
+     * Flushes the journal writer to disk and closes it if it is open.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            channel.force(false);
+            writer.close();
+            writer = null;
+            channel = null;
+        }
+    }
+}
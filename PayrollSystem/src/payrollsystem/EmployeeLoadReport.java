@@ -0,0 +1,176 @@
+package payrollsystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of loading an employee file, holding every employee that was built
+ * and a record of every row that could not be loaded.
+ */
+public class EmployeeLoadReport {
+    private final String fileName;
+    private final ArrayList<Employee> employees = new ArrayList<>();
+    private final ArrayList<RowError> errors = new ArrayList<>();
+    private int[] lineNumbers = new int[16];
+
+    /**
+     * Constructs an empty report for the given file.
+     *
+     * @param fileName the name of the file being loaded
+     */
+    public EmployeeLoadReport(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Records an employee that was loaded successfully.
+     *
+     * @param e          the loaded employee
+     * @param lineNumber the line number of the employee's row in the file, starting at 1
+     */
+    void addEmployee(Employee e, int lineNumber) {
+        if (employees.size() == lineNumbers.length) {
+            lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+        }
+        lineNumbers[employees.size()] = lineNumber;
+        employees.add(e);
+    }
+
+    /**
+     * Gets the employee loaded from a given line of the file.
+     *
+     * @param lineNumber the line number, starting at 1
+     * @return the employee loaded from that line, or null if the line was blank, rejected or past the end of the file
+     */
+    public Employee getEmployeeOnLine(int lineNumber) {
+        int i = Arrays.binarySearch(lineNumbers, 0, employees.size(), lineNumber);
+        return i < 0 ? null : employees.get(i);
+    }
+
+    /**
+     * Records a row that could not be loaded.
+     *
+     * @param lineNumber the line number of the row in the file, starting at 1
+     * @param line       the contents of the row
+     * @param message    the reason the row was rejected
+     */
+    void addError(int lineNumber, String line, String message) {
+        errors.add(new RowError(lineNumber, line, message));
+    }
+
+    /**
+     * Gets the employees that were loaded, in file order.
+     *
+     * @return the loaded employees
+     */
+    public ArrayList<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * Gets the rows that could not be loaded, in file order.
+     *
+     * @return an unmodifiable list of the rejected rows
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Checks whether any rows were rejected.
+     *
+     * @return true if at least one row could not be loaded
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Makes a summary of the load, listing at most the given number of rejected rows.
+     *
+     * @param maxErrors the largest number of rejected rows to list
+     * @return a string summarising the load
+     */
+    public String summary(int maxErrors) {
+        StringBuilder sb = new StringBuilder(String.format("%s: %d employees loaded, %d rows rejected",
+                fileName, employees.size(), errors.size()));
+        for (int i = 0; i < errors.size() && i < maxErrors; i++) {
+            sb.append(System.lineSeparator()).append("  ").append(errors.get(i));
+        }
+        if (errors.size() > maxErrors) {
+            sb.append(System.lineSeparator()).append("  ...");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Makes a summary of the load, listing every rejected row.
+     *
+     * @return a string summarising the load
+     */
+    @Override
+    public String toString() {
+        return summary(errors.size());
+    }
+
+    /**
+     * A row of the employee file that could not be loaded.
+     */
+    public static class RowError {
+        private final int lineNumber;
+        private final String line;
+        private final String message;
+
+        /**
+         * Constructs a RowError.
+         *
+         * @param lineNumber the line number of the row in the file, starting at 1
+         * @param line       the contents of the row
+         * @param message    the reason the row was rejected
+         */
+        public RowError(int lineNumber, String line, String message) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Gets the line number of the row.
+         *
+         * @return the line number, starting at 1
+         */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Gets the contents of the row.
+         *
+         * @return the rejected line
+         */
+        public String getLine() {
+            return line;
+        }
+
+        /**
+         * Gets the reason the row was rejected.
+         *
+         * @return the error message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Returns a string describing the rejected row.
+         *
+         * @return the line number, reason and contents of the row
+         */
+        @Override
+        public String toString() {
+            return String.format("line %d: %s [%s]", lineNumber, message, line);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams employees out of an employee details file, one line at a time.
+ * Rows with six fields are full-time employees and rows with seven are part-time employees.
+ * A bad row is recorded in the load report and skipped rather than abandoning the whole load.
+ *
+ * <p>Each payroll system has its own loader, which also numbers the employees it creates,
+ * so employee IDs are unique within one payroll system rather than across the whole program.</p>
+ */
+public class EmployeeLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final PositionCatalog positionCatalog;
+    private int numberOfEmployees;
+
+    /**
+     * Constructs an EmployeeLoader resolving positions in the given catalog.
+     *
+     * @param positionCatalog the positions of the payroll system the employees belong to
+     */
+    public EmployeeLoader(PositionCatalog positionCatalog) {
+        this(positionCatalog, 0);
+    }
+
+    /**
+     * Constructs an EmployeeLoader resolving positions in the given catalog, carrying on the numbering
+     * of employees created before, such as those read back from an employee record file.
+     *
+     * @param positionCatalog    the positions of the payroll system the employees belong to
+     * @param nextEmployeeNumber the number of employees already created
+     */
+    public EmployeeLoader(PositionCatalog positionCatalog, int nextEmployeeNumber) {
+        this.positionCatalog = positionCatalog;
+        this.numberOfEmployees = nextEmployeeNumber;
+    }
+
+    /**
+     * Gets the number the next employee's ID will be made from.
+     *
+     * @return the number of employees created so far
+     */
+    public synchronized int getNextEmployeeNumber() {
+        return numberOfEmployees;
+    }
+
+    /**
+     * Loads every employee in the given file.
+     *
+     * @param file the path to the employee details file
+     * @return a report holding the loaded employees and any rejected rows
+     * @throws IOException If the file cannot be read.
+     */
+    public EmployeeLoadReport load(Path file) throws IOException {
+        EmployeeLoadReport report = new EmployeeLoadReport(file.getFileName().toString());
+        try (BufferedReader reader = new BufferedReader(
+                Files.newBufferedReader(file, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    report.addEmployee(parseEmployee(line), lineNumber);
+                } catch (RuntimeException e) {
+                    report.addError(lineNumber, line, describe(e));
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Builds a single employee from a line of the employee details file, giving them the next free ID
+     * in the series of their position's category.
+     *
+     * @param line the line to be parsed
+     * @return the full-time or part-time employee described by the line
+     * @throws PayRollException If the line does not have six or seven fields, or names no known position.
+     */
+    public synchronized Employee parseEmployee(String line) {
+        String[] fields = CsvTokenizer.tokenize(line);
+        checkFieldCount(fields);
+        Position position = positionCatalog.getPositionOfName(fields[2]);
+        Employee e = build(Employee.idOf(position, numberOfEmployees), position, fields);
+        numberOfEmployees++;
+        return e;
+    }
+
+    /**
+     * Builds a single employee from a line of the employee details file under the ID they were given before,
+     * such as when reading back the employee journal. The numbering of new employees is left unchanged.
+     *
+     * @param employeeId the ID the employee was given when they were first created
+     * @param line       the line to be parsed
+     * @return the full-time or part-time employee described by the line
+     * @throws PayRollException If the line does not have six or seven fields, or names no known position.
+     */
+    public Employee parseEmployee(int employeeId, String line) {
+        String[] fields = CsvTokenizer.tokenize(line);
+        checkFieldCount(fields);
+        return build(employeeId, positionCatalog.getPositionOfName(fields[2]), fields);
+    }
+
+    /**
+     * Checks that a row has the six fields of a full-time employee or the seven of a part-time employee.
+     *
+     * @param fields the fields of the row
+     * @throws PayRollException If the row has any other number of fields.
+     */
+    private static void checkFieldCount(String[] fields) {
+        if (fields.length != 6 && fields.length != 7) {
+            throw new PayRollException("Fault in Employee CSV formatting");
+        }
+    }
+
+    /**
+     * Builds a full-time or part-time employee from the fields of a row.
+     *
+     * @param employeeId the employee's ID
+     * @param position   the position named in the row
+     * @param fields     the fields of the row
+     * @return a part-time employee if the row has seven fields, otherwise a full-time employee
+     */
+    private static Employee build(int employeeId, Position position, String[] fields) {
+        return fields.length == 7
+                ? new PartTimeEmployee(employeeId, position, fields)
+                : new FullTimeEmployee(employeeId, position, fields);
+    }
+
+    /**
+     * Turns an exception thrown while parsing a row into a message for the load report.
+     *
+     * @param e the exception thrown
+     * @return a short description of what went wrong
+     */
+    private static String describe(RuntimeException e) {
+        if (e instanceof PayRollException || e.getMessage() == null) {
+            return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+}
@@ -0,0 +1,466 @@
+package payrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * A memory-mapped file holding every employee as a fixed-width binary record, in place of the employee CSV files.
+ * Opening the file maps it rather than parsing text, and a change to an employee, such as a new rank, is written
+ * straight into their record, leaving the operating system's page cache to write it back to disk.
+ *
+ * <p>The file starts with a {@value #HEADER_SIZE} byte header: a magic number, the version, the record size,
+ * the number of records, the number the next new employee's ID is made from, a fingerprint of the position
+ * titles the records were written with, and the record being filled and record count of a removal in progress. Each {@value #RECORD_SIZE} byte record holds the employee ID, a flags byte
+ * marking part-time employees and employees with a promotion waiting to be accepted, the insurance tier, rank,
+ * position ordinal and ordinal of the position offered in a waiting promotion, the dates of the last promotion,
+ * reaching the top of the scale and the last claim as epoch days, the claimed and held-over hours, and the name
+ * and phone number as UTF-8.</p>
+ *
+ * <p>A removed record is filled with the last record, and the count is then reduced by one. The removal in progress
+ * is forced to disk before the last record is copied, and the copy before the count, so a removal cut short by a
+ * crash is finished when the file is next opened instead of leaving the last employee in two records.</p>
+ *
+ * <p>The file is mapped in segments of {@value #SEGMENT_RECORDS} records, so it is not limited to the 2 GB
+ * a single mapping can hold. Like the employees themselves, it is guarded by the locks of the payroll system.</p>
+ */
+public final class EmployeeRecordFile implements AutoCloseable {
+    private static final int MAGIC = 0x454D5052; // "EMPR"
+    private static final int VERSION = 2;
+    private static final int UNFINISHED_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 128;
+    private static final int SEGMENT_RECORDS = 8192;
+    private static final int COUNT = 12;
+    private static final int NEXT_NUMBER = 16;
+    private static final int CATALOG_HASH = 20;
+    private static final int REMOVING = 24;
+    private static final int REMOVING_COUNT = 28;
+    private static final int NONE = -1;
+    private static final int ID = 0;
+    private static final int FLAGS = 4;
+    private static final int TIER = 5;
+    private static final int RANK = 6;
+    private static final int POSITION = 8;
+    private static final int OFFERED_POSITION = 10;
+    private static final int LAST_PROMOTION = 12;
+    private static final int REACHED_TOP = 16;
+    private static final int LAST_CLAIM = 20;
+    private static final int HOURS = 24;
+    private static final int UNPAID = 32;
+    private static final int NAME = 40;
+    private static final int NAME_LENGTH = 63;
+    private static final int PHONE = 104;
+    private static final int PHONE_LENGTH = 23;
+    private static final byte PART_TIME = 1;
+    private static final byte PROMOTION_DUE = 2;
+
+    private final FileChannel channel;
+    private final PositionCatalog positionCatalog;
+    private final MappedByteBuffer header;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private int size;
+
+    /**
+     * Opens the employee record file at the given path, creating an empty one if it does not exist.
+     *
+     * @param file            the path of the record file
+     * @param positionCatalog the positions the records' ordinals refer to
+     * @throws IOException If the file cannot be mapped, is not an employee record file, or was written
+     *                     with a different position file.
+     */
+    public EmployeeRecordFile(Path file, PositionCatalog positionCatalog) throws IOException {
+        this.positionCatalog = positionCatalog;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (created) {
+            header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, RECORD_SIZE).putInt(COUNT, 0)
+                    .putInt(NEXT_NUMBER, 0).putInt(CATALOG_HASH, fingerprint(positionCatalog))
+                    .putInt(REMOVING, NONE).putInt(REMOVING_COUNT, 0);
+        } else {
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not an employee record file: " + file);
+            }
+            int version = header.getInt(4);
+            if ((version != VERSION && version != UNFINISHED_VERSION) || header.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Unsupported employee record file version: " + version);
+            }
+            if (version == UNFINISHED_VERSION) {// the same records, written before removals were recorded
+                header.putInt(REMOVING, NONE).putInt(REMOVING_COUNT, 0).putInt(4, VERSION);
+            }
+            if (header.getInt(CATALOG_HASH) != fingerprint(positionCatalog)) {
+                throw new IOException(file + " was written with a different position file."
+                        + " Delete it to reload the employees from EmployeeDetails.csv.");
+            }
+            size = header.getInt(COUNT);
+            ensureCapacity(size);
+            if (header.getInt(REMOVING) != NONE) {
+                finishRemoval();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of employees in the file.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number the next new employee's ID is made from, saved so IDs are never reused after a restart.
+     * It is only set once every employee has been written, so 0 means the file is new or was never finished.
+     *
+     * @return the number of employees created so far
+     */
+    public int getNextEmployeeNumber() {
+        return header.getInt(NEXT_NUMBER);
+    }
+
+    /**
+     * Sets the number the next new employee's ID is made from.
+     *
+     * @param number the number of employees created so far
+     */
+    public void setNextEmployeeNumber(int number) {
+        header.putInt(NEXT_NUMBER, number);
+    }
+
+    /**
+     * Discards every record, keeping the file mapped so it can be written again from the start.
+     */
+    public void clear() {
+        size = 0;
+        header.putInt(COUNT, 0);
+    }
+
+    /**
+     * Builds the employee held in every record, in the order of the records.
+     *
+     * @return the employees in the file
+     * @throws PayRollException If a record names a position missing from the catalog.
+     */
+    public ArrayList<Employee> readEmployees() {
+        ArrayList<Employee> employees = new ArrayList<>(size);
+        for (int record = 0; record < size; record++) {
+            ByteBuffer b = segment(record);
+            int at = offset(record);
+            int id = b.getInt(at + ID);
+            String name = getString(b, at + NAME);
+            String phone = getString(b, at + PHONE);
+            Position position = positionCatalog.getPositionOfOrdinal(b.getShort(at + POSITION));
+            int rank = b.getShort(at + RANK);
+            LocalDate lastPromotion = EmployeeColumns.toDate(b.getInt(at + LAST_PROMOTION));
+            long healthInsurance = EmployeeColumns.tierCost(b.get(at + TIER));
+            Employee e;
+            if ((b.get(at + FLAGS) & PART_TIME) != 0) {
+                PartTimeEmployee pt = new PartTimeEmployee(id, name, phone, position, rank, lastPromotion, healthInsurance);
+                pt.setLastClaimDate(EmployeeColumns.toDate(b.getInt(at + LAST_CLAIM)));
+                pt.setHoursWorked(b.getDouble(at + HOURS));
+                pt.setUnpaidHours(b.getDouble(at + UNPAID));
+                e = pt;
+            } else {
+                e = new FullTimeEmployee(id, name, phone, position, rank, lastPromotion, healthInsurance);
+            }
+            e.setReachedTopOfScale(EmployeeColumns.toDate(b.getInt(at + REACHED_TOP)));
+            if ((b.get(at + FLAGS) & PROMOTION_DUE) != 0) {
+                int offered = b.getShort(at + OFFERED_POSITION);
+                if (offered >= 0) {
+                    e.setPromotionPos(positionCatalog.getPositionOfOrdinal(offered).getTitle());
+                }
+                e.setPromotionDue(true);
+            }
+            employees.add(e);
+        }
+        return employees;
+    }
+
+    /**
+     * Writes an employee to a new record at the end of the file.
+     *
+     * @param e the employee to be written
+     * @throws PayRollException If the employee's name or phone number is too long for a record,
+     *                          or the file cannot be grown.
+     */
+    public void append(Employee e) {
+        try {
+            ensureCapacity(size + 1);
+        } catch (IOException ex) {
+            throw new PayRollException("Error growing the employee record file: " + ex.getMessage());
+        }
+        ByteBuffer b = segment(size);
+        int at = offset(size);
+        putString(b, at + NAME, NAME_LENGTH, e.getName(), "Name");
+        putString(b, at + PHONE, PHONE_LENGTH, e.getPhoneNumber(), "Phone number");
+        b.putInt(at + ID, e.getEmployeeId());
+        byte flags = e instanceof PartTimeEmployee ? PART_TIME : 0;
+        if (e.getPromotionDue()) flags |= PROMOTION_DUE;
+        b.put(at + FLAGS, flags);
+        b.putShort(at + OFFERED_POSITION, (short) offeredOrdinal(e.getPromotionDue() ? e.getPromotionPos() : null));
+        b.put(at + TIER, EmployeeColumns.tierOf(e.getHealthInsurance()));
+        b.putShort(at + RANK, (short) e.getRank());
+        b.putShort(at + POSITION, (short) positionCatalog.getOrdinalOfName(e.getPosition().getTitle()));
+        b.putInt(at + LAST_PROMOTION, EmployeeColumns.toDay(e.getLastPromotionDate()));
+        b.putInt(at + REACHED_TOP, EmployeeColumns.toDay(e.getReachedTopOfScale()));
+        if (e instanceof PartTimeEmployee) {
+            PartTimeEmployee pt = (PartTimeEmployee) e;
+            b.putInt(at + LAST_CLAIM, EmployeeColumns.toDay(pt.getLastClaimDate()));
+            b.putDouble(at + HOURS, pt.getHoursWorked());
+            b.putDouble(at + UNPAID, pt.getUnpaidHours());
+        } else {
+            b.putInt(at + LAST_CLAIM, EmployeeColumns.toDay(null));
+            b.putDouble(at + HOURS, 0);
+            b.putDouble(at + UNPAID, 0);
+        }
+        size++;
+        header.putInt(COUNT, size);
+    }
+
+    /**
+     * Removes a record by moving the last record into its place, so the record numbers of every other employee
+     * stay the same. The removal is recorded in the header and forced to disk first, then the moved record,
+     * then the new count, so a crash at any point leaves a removal that can be finished on the next open.
+     *
+     * @param record the record to be removed
+     */
+    public void remove(int record) {
+        if (record != size - 1) {
+            header.putInt(REMOVING, record).putInt(REMOVING_COUNT, size);
+            header.force();
+            moveLastRecord(record);
+        }
+        size--;
+        header.putInt(COUNT, size).putInt(REMOVING, NONE);
+        header.force();
+    }
+
+    /**
+     * Finishes a removal cut short by a crash. If the count was already reduced, only the removal is cleared;
+     * otherwise the last record, which is unchanged until the count is reduced, is moved into place again.
+     */
+    private void finishRemoval() {
+        if (header.getInt(REMOVING_COUNT) == size) {
+            moveLastRecord(header.getInt(REMOVING));
+            size--;
+            header.putInt(COUNT, size);
+        }
+        header.putInt(REMOVING, NONE);
+        header.force();
+    }
+
+    /**
+     * Copies the last record over another record and forces the copy to disk.
+     *
+     * @param record the record to be overwritten
+     */
+    private void moveLastRecord(int record) {
+        byte[] moved = new byte[RECORD_SIZE];
+        segment(size - 1).get(offset(size - 1), moved);
+        MappedByteBuffer target = segment(record);
+        target.put(offset(record), moved);
+        target.force(offset(record), RECORD_SIZE);
+    }
+
+    /**
+     * Writes a new rank into a record.
+     *
+     * @param record the employee's record
+     * @param rank   the new rank
+     */
+    void setRank(int record, int rank) {
+        segment(record).putShort(offset(record) + RANK, (short) rank);
+    }
+
+    /**
+     * Writes whether the employee has a promotion waiting to be accepted, and the position offered, into a record.
+     *
+     * @param record  the employee's record
+     * @param due     true if a promotion has been offered
+     * @param offered the title of the position offered, or null if there is none
+     * @throws PayRollException If the offered position is not in the catalog.
+     */
+    void setPromotionDue(int record, boolean due, String offered) {
+        ByteBuffer b = segment(record);
+        int at = offset(record);
+        b.putShort(at + OFFERED_POSITION, (short) offeredOrdinal(due ? offered : null));
+        byte flags = b.get(at + FLAGS);
+        b.put(at + FLAGS, (byte) (due ? flags | PROMOTION_DUE : flags & ~PROMOTION_DUE));
+    }
+
+    /**
+     * Writes a new position ordinal into a record.
+     *
+     * @param record  the employee's record
+     * @param ordinal the ordinal of the new position
+     */
+    void setPositionOrdinal(int record, int ordinal) {
+        segment(record).putShort(offset(record) + POSITION, (short) ordinal);
+    }
+
+    /**
+     * Writes a new date of last promotion into a record.
+     *
+     * @param record the employee's record
+     * @param day    the date as an epoch day
+     */
+    void setLastPromotionDay(int record, int day) {
+        segment(record).putInt(offset(record) + LAST_PROMOTION, day);
+    }
+
+    /**
+     * Writes the date the employee reached the top of their scale into a record.
+     *
+     * @param record the employee's record
+     * @param day    the date as an epoch day, or the columns' value for no date
+     */
+    void setReachedTopDay(int record, int day) {
+        segment(record).putInt(offset(record) + REACHED_TOP, day);
+    }
+
+    /**
+     * Writes the date of the last pay claim into a record.
+     *
+     * @param record the employee's record
+     * @param day    the date as an epoch day, or the columns' value for no date
+     */
+    void setLastClaimDay(int record, int day) {
+        segment(record).putInt(offset(record) + LAST_CLAIM, day);
+    }
+
+    /**
+     * Writes the hours claimed for the current pay period into a record.
+     *
+     * @param record the employee's record
+     * @param hours  the hours worked
+     */
+    void setHoursWorked(int record, double hours) {
+        segment(record).putDouble(offset(record) + HOURS, hours);
+    }
+
+    /**
+     * Writes the hours held over from late claims into a record.
+     *
+     * @param record the employee's record
+     * @param hours  the unpaid hours
+     */
+    void setUnpaidHours(int record, double hours) {
+        segment(record).putDouble(offset(record) + UNPAID, hours);
+    }
+
+    /**
+     * Finds the ordinal stored for the position offered in a waiting promotion.
+     *
+     * @param offered the title of the position offered, or null if there is none
+     * @return the ordinal of the position, or -1 if there is none
+     * @throws PayRollException If the position is not in the catalog.
+     */
+    private int offeredOrdinal(String offered) {
+        return offered == null ? -1 : positionCatalog.getOrdinalOfName(offered);
+    }
+
+    /**
+     * Flushes every change to disk and closes the file. The mappings are released once no longer referenced.
+     */
+    @Override
+    public void close() {
+        try {
+            header.force();
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing the employee record file.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Maps enough segments to hold the given number of records, growing the file if needed.
+     *
+     * @param records the number of records the file must be able to hold
+     * @throws IOException If the file cannot be grown or mapped.
+     */
+    private void ensureCapacity(int records) throws IOException {
+        while ((long) segments.size() * SEGMENT_RECORDS < records) {
+            long position = HEADER_SIZE + (long) segments.size() * SEGMENT_RECORDS * RECORD_SIZE;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, (long) SEGMENT_RECORDS * RECORD_SIZE));
+        }
+    }
+
+    /**
+     * Returns the mapped segment holding a record.
+     *
+     * @param record the record number
+     * @return the segment the record is in
+     */
+    private MappedByteBuffer segment(int record) {
+        return segments.get(record / SEGMENT_RECORDS);
+    }
+
+    /**
+     * Returns the position of a record within its segment.
+     *
+     * @param record the record number
+     * @return the offset of the record's first byte in its segment
+     */
+    private static int offset(int record) {
+        return (record % SEGMENT_RECORDS) * RECORD_SIZE;
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string from a record.
+     *
+     * @param b  the segment holding the record
+     * @param at the position of the length byte
+     * @return the string
+     */
+    private static String getString(ByteBuffer b, int at) {
+        byte[] bytes = new byte[b.get(at) & 0xFF];
+        b.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string into a record.
+     *
+     * @param b         the segment holding the record
+     * @param at        the position of the length byte
+     * @param maxLength the largest number of bytes the field holds
+     * @param value     the string to be written
+     * @param field     the name of the field, used in error messages
+     * @throws PayRollException If the string is too long for the field.
+     */
+    private static void putString(ByteBuffer b, int at, int maxLength, String value, String field) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxLength) {
+            throw new PayRollException(field + " too long for an employee record: " + value);
+        }
+        b.put(at, (byte) bytes.length);
+        b.put(at + 1, bytes);
+    }
+
+    /**
+     * Works out a fingerprint of the position titles, in order, so records are never read back
+     * against a position file whose ordinals mean something else.
+     *
+     * @param positionCatalog the positions the ordinals refer to
+     * @return a hash of every title in the catalog
+     */
+    private static int fingerprint(PositionCatalog positionCatalog) {
+        int hash = 1;
+        for (Position p : positionCatalog.getPositions()) {
+            hash = 31 * hash + p.getTitle().hashCode();
+        }
+        return hash;
+    }
+}
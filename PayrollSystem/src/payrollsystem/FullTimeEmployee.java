@@ -1,6 +1,6 @@
 package payrollsystem;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 
 /**
  * Represents a full-time employee and their salary details.
@@ -8,34 +8,49 @@ import java.util.ArrayList;
  */
 public class FullTimeEmployee extends Employee {
     private int rankIndex;
-    private double annualSalary;
-    private double basePay;
+    private long annualSalary;
+    private long basePay;
 
     /**
-     * Constructs an instance of FullTimeEmployee based on details parsed from a CSV string,
+     * Constructs an instance of FullTimeEmployee from the already separated fields of a CSV row,
      * Passes these details to the parent Employee class constructor.
      *
-     * @param details A comma-separated string containing the employee's information.
+     * @param employeeId The unique ID of the employee.
+     * @param position   The employee's position, looked up from the title in the row.
+     * @param d          The employee's information, one field per element.
      */
-    public FullTimeEmployee(String details) {
-        String[] d = details.split(",");
-        super(d[0], d[1], d[2], d[3], d[4], d[5]);
+    public FullTimeEmployee(int employeeId, Position position, String[] d) {
+        super(employeeId, d[0], d[1], position, d[3], d[4], d[5]);
+    }
+
+    /**
+     * Constructs an instance of FullTimeEmployee from details that are already parsed.
+     *
+     * @param employeeId      The unique ID of the employee.
+     * @param name            The name of the employee.
+     * @param phoneNumber     The phone number of the employee.
+     * @param position        The employee's position.
+     * @param rank            The employee's rank.
+     * @param lastPromotion   The date of the employee's last promotion.
+     * @param healthInsurance The monthly cost of the employee's health insurance in cents.
+     */
+    FullTimeEmployee(int employeeId, String name, String phoneNumber, Position position, int rank,
+                     LocalDate lastPromotion, long healthInsurance) {
+        super(employeeId, name, phoneNumber, position, rank, lastPromotion, healthInsurance);
     }
 
     /**
      * Calculates and returns the monthly base pay for the employee.
      *
-     * @return The monthly base pay.
+     * @return The monthly base pay in cents.
      */
     @Override
-    public double calculateBasePay() {
-        ArrayList<Double> salaryScale = getPosition().getPayScale();
-
+    public long calculateBasePay() {
         setRankIndex();
-        if (getRankIndex() < 0 || getRankIndex() >= salaryScale.size()) {
+        if (getRankIndex() < 0 || getRankIndex() >= getPosition().getScaleLength()) {
             throw new IllegalArgumentException("Rank out of bounds for the salary scale.");
         }
-        setAnnualSalary(salaryScale);
+        setAnnualSalary();
         setBasePay();
         return basePay;
     }
@@ -59,30 +74,33 @@ public class FullTimeEmployee extends Employee {
     /**
      * Returns the annual salary of the employee.
      *
-     * @return The annual salary.
+     * @return The annual salary in cents.
      */
-    public double getAnnualSalary() {
+    public long getAnnualSalary() {
         return annualSalary;
     }
 
-    public void setAnnualSalary(ArrayList<Double> salaryScale) {
-        this.annualSalary = salaryScale.get(getRankIndex());
+    /**
+     * Sets the annual salary to the salary of the employee's rank on their position's pay scale.
+     */
+    public void setAnnualSalary() {
+        this.annualSalary = getPosition().getSalary(getRank());
         setBasePay();
     }
 
     /**
      * Returns the monthly base pay of the employee.
      *
-     * @return The monthly base pay.
+     * @return The monthly base pay in cents.
      */
-    public double getBasePay() {
+    public long getBasePay() {
         return basePay;
     }
 
     /**
-     * Sets the monthly base pay for the employee by dividing the annual salary by 12.
+     * Sets the monthly base pay for the employee by dividing the annual salary by 12, to the nearest cent.
      */
     public void setBasePay() {
-        this.basePay = getAnnualSalary() / 12;
+        this.basePay = Money.divide(getAnnualSalary(), 12);
     }
 }
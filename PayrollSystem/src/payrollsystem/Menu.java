@@ -1,7 +1,9 @@
 package payrollsystem;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.util.InputMismatchException;
 import java.util.Scanner;
@@ -11,10 +13,27 @@ import java.util.regex.Pattern;
  * Menu class to run and operate the command line interface and associated functions
  */
 public class Menu {
+    private static final int MAX_FAST_FORWARD_YEARS = 100;
     private final Scanner in;
+    private final PrintStream out;
 
+    /**
+     * Constructs a Menu reading commands from the console.
+     */
     public Menu() {
-        in = new Scanner(System.in);
+        this(System.in, System.out);
+    }
+
+    /**
+     * Constructs a Menu reading commands from the given stream and printing to another,
+     * such as the two sides of a remote session's connection.
+     *
+     * @param input  the stream commands are read from
+     * @param output the stream the menu is printed to
+     */
+    public Menu(InputStream input, PrintStream output) {
+        in = new Scanner(input);
+        out = output;
     }
 
     /**
@@ -28,7 +47,7 @@ public class Menu {
 
         while (more) {
             String options = "LQ";
-            System.out.println("L)og In\t\tQ)uit");
+            out.println("L)og In\t\tQ)uit");
             String command;
 
             // fixed issue where in would process the enter key as the command
@@ -44,12 +63,12 @@ public class Menu {
                     }
                     // unreachable method if not in separate if checks
                     if (!options.contains(command)) {
-                        System.out.print("L)og In\tQ)uit\n");
+                        out.print("L)og In\tQ)uit\n");
                         command = in.nextLine().toUpperCase();
                     }
                 } while (!options.contains(command));
             } catch (PayRollException ex) {
-                System.out.println(ex.getMessage());
+                out.println(ex.getMessage());
             }
 
             if (command.equals("L")) {
@@ -58,16 +77,16 @@ public class Menu {
                 int idNum = 0;
 
                 try {
-                    employee = logIn();
+                    employee = logIn(payroll);
                     idNum = employee.getEmployeeId();
                     if(findUserType(idNum) == 3){
-                        System.out.println("\nLogged in as HR.");
+                        out.println("\nLogged in as HR.");
                     } else {
-                        System.out.println("\nWelcome, " + employee.getName() + ".");
-                        System.out.println(employee.getRole() + ".");
+                        out.println("\nWelcome, " + employee.getName() + ".");
+                        out.println(employee.getRole() + ".");
                     }
                 } catch (PayRollException ex) {
-                    System.out.println(ex.getMessage()); // Print the exception message
+                    out.println(ex.getMessage()); // Print the exception message
                     continue; // Go back to the main menu loop
                 }
 
@@ -77,11 +96,11 @@ public class Menu {
                 if (findUserType(idNum) == 1) {
                     //default case
                 } else if (findUserType(idNum) == 2) {
-                    launchS += "A)dd Employee\tR)emove Employee\t";
-                    allowed += "AR";
+                    launchS += "A)dd Employee\tR)emove Employee\tI)mport Pay Claims\t";
+                    allowed += "ARI";
                 } else if (findUserType(idNum) == 3) {
-                    launchS = "E)mployee Details\tP)romote an Employee\t";
-                    allowed += "EP";
+                    launchS = "E)mployee Details\tP)romote an Employee\tB)ulk Promotions from File\t";
+                    allowed += "EPB";
                 }
                 if (employee instanceof PartTimeEmployee) {
                     launchS += "S)ubmit Pay Claim\t";
@@ -95,7 +114,7 @@ public class Menu {
 
                 while (evenMore) {
                     // print the options specific to the user's accessibility
-                    System.out.print("\nDate: " + PayRollSystem.simulatedDate.format(PayRollSystem.DATE_FORMAT) + "\n" + launchS);
+                    out.print("\nDate: " + payroll.getSimulatedDate().format(PayRollSystem.DATE_FORMAT) + "\n" + launchS);
                     command = "";
 
                     do {
@@ -108,85 +127,84 @@ public class Menu {
                                 throw new PayRollException("Invalid Command.\n" + "   ----------");
                             }
                             if (!allowed.contains(command)) {
-                                System.out.print(launchS);
+                                out.print(launchS);
                                 command = in.nextLine().toUpperCase();
                             }
                         } while (!allowed.contains(command));
                     } catch (PayRollException ex) {
-                        System.out.println(ex.getMessage());
+                        out.println(ex.getMessage());
                     }
 
                     if (command.equals("D") && allowed.contains("D")) {
-                        System.out.println(employee);
+                        out.println(employee);
                     } else if (command.equals("V") && allowed.contains("V")) {
                         try {
-                            if (employee.getHistoricalPayslips().isEmpty()) {
+                            if (payroll.getPayslipCount(employee) == 0) {
                                 throw new PayRollException("No payslips available to view.");
                             } else {
-                                employee.getHistoricalPayslips().getLast().printPaySlip();
+                                payroll.getRecentPayslips(employee, 1).getFirst().printPaySlip(out);
                             }
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
                         }
                     } else if (command.equals("C") && allowed.contains("C")) {
-                        System.out.println(employee.getPosition().toString());
+                        out.println(employee.getPosition().toString());
                     } else if (command.equals("H") && allowed.contains("H")) {
                         boolean hOK = false;
                         String selectedAmount = "";
                         try {
-                            if (employee.getHistoricalPayslips().isEmpty()) {
+                            int available = payroll.getPayslipCount(employee);
+                            if (available == 0) {
                                 throw new PayRollException("No payslips available to view.");
                             } else {
                                 while (!hOK) {
-                                    System.out.printf("Number of Payslips to print (maximum available: %d): ",
-                                            employee.getHistoricalPayslips().size());
+                                    out.printf("Number of Payslips to print (maximum available: %d): ",
+                                            available);
                                     selectedAmount = in.nextLine();
                                     // check if the amount is <= the array size
                                     try {
                                         if (!selectedAmount.matches("[\\d]")) {
                                             throw new PayRollException("Invalid Input.\n\t----------");
                                         }
-                                        if (Integer.parseInt(selectedAmount) > employee.getHistoricalPayslips().size()) {
-                                            throw new PayRollException("Maximum Available: " + employee.getHistoricalPayslips().size());
+                                        if (Integer.parseInt(selectedAmount) > available) {
+                                            throw new PayRollException("Maximum Available: " + available);
                                         }
                                         hOK = true;
                                     } catch (PayRollException ex) {
-                                        System.out.println(ex.getMessage());
+                                        out.println(ex.getMessage());
                                     }
                                 }
-                                int i,j;
-                                for (i = employee.getHistoricalPayslips().size(), j = Integer.parseInt(selectedAmount); j > 0; i--, j--) {
-                                    Payslip p = employee.getHistoricalPayslips().get(i-1);
-                                    p.printPaySlip();
+                                for (Payslip p : payroll.getRecentPayslips(employee, Integer.parseInt(selectedAmount))) {
+                                    p.printPaySlip(out);
                                 }
                             }
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
                         }
                     } else if (command.equals("A") && allowed.contains("A")) {
                         //write to the csv file with all details needed to construct another Employee object
                         try {
-                            System.out.print("Enter Employee Name: ");
+                            out.print("Enter Employee Name: ");
                             String eName = in.nextLine();
-                            System.out.print("Enter Employee Phone Number: ");
+                            out.print("Enter Employee Phone Number: ");
                             String ePhoneNum = in.nextLine();
-                            System.out.print("Enter Employee Position: ");
+                            out.print("Enter Employee Position: ");
                             String ePosName = in.nextLine();
                             int eRank = 0;
                             boolean validRank = false;
 
                             // Validate and parse rank input
                             while (!validRank) {
-                                System.out.print("Enter Employee Rank: ");
+                                out.print("Enter Employee Rank: ");
                                 String rankInput = in.nextLine();
                                 try {
                                     eRank = Integer.parseInt(rankInput);
                                     validRank = true;
                                 } catch (NumberFormatException ex) {
-                                    System.out.println("Invalid rank input. Please enter a numeric value for rank.");
+                                    out.println("Invalid rank input. Please enter a numeric value for rank.");
                                 }
                             }
-                            System.out.print("Enter Health Insurance Level (Basic,Standard,Enhanced,Premium): ");
+                            out.print("Enter Health Insurance Level (Basic,Standard,Enhanced,Premium): ");
                             String eInsuranceTier = in.nextLine().toLowerCase().trim();
                             if (!eInsuranceTier.equals("basic") &&
                                     !eInsuranceTier.equals("standard") &&
@@ -194,7 +212,7 @@ public class Menu {
                                     !eInsuranceTier.equals("premium")) {
                                 throw new PayRollException("Insurance Tier error");
                             }
-                            System.out.println("Is Parttime (\"Yes\" or \"No\"): ");
+                            out.println("Is Parttime (\"Yes\" or \"No\"): ");
                             String ePTYorN = in.nextLine().toLowerCase().trim();
                             String isParttime = "";
                             switch (ePTYorN) {
@@ -207,43 +225,51 @@ public class Menu {
                                     throw new PayRollException("It was a yes or no question.");
                             }
                             String details = String.format("%s,%s,%s,%d,%s,%s", eName, ePhoneNum, ePosName, eRank,
-                                    PayRollSystem.simulatedDate.format(PayRollSystem.DATE_FORMAT), eInsuranceTier);
+                                    payroll.getSimulatedDate().format(PayRollSystem.DATE_FORMAT), eInsuranceTier);
+                            if (!isParttime.isEmpty()) {
+                                details += "," + isParttime;
+                            }
                             try {
-                                if (isParttime.isEmpty()) {
-                                    FullTimeEmployee e = new FullTimeEmployee(details);
-                                    payroll.addEmployee(e);
-                                } else {
-                                    PartTimeEmployee e = new PartTimeEmployee(details);
-                                    payroll.addEmployee(e);
-                                }
+                                payroll.addEmployee(payroll.createEmployee(details));
                             } catch (IllegalArgumentException ex) {
-                                System.out.println("Error creating employee: " + ex.getMessage());
+                                out.println("Error creating employee: " + ex.getMessage());
                             }
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
                         } catch (InputMismatchException ex) {
-                            System.out.println("Inappropriate data field entry");
+                            out.println("Inappropriate data field entry");
                         }
 
                     } else if (command.equals("R") && allowed.contains("R")) {
                         removeEmployee(payroll);
+                    } else if (command.equals("I") && allowed.contains("I")) {
+                        out.print("Enter Path of Claims File (CSV or JSON lines): ");
+                        String path;
+                        do {
+                            path = in.nextLine().trim();
+                        } while (path.isEmpty());
+                        try {
+                            out.println(payroll.importClaims(Path.of(path)).summary(10));
+                        } catch (IOException | InvalidPathException ex) {
+                            out.println("Could not read claims file: " + ex.getMessage());
+                        }
                     } else if (command.equals("E") && allowed.contains("E")) {
-                        viewEmployee();
+                        viewEmployee(payroll);
                     } else if (command.equals("M") && allowed.contains("M")) {
-                        Position p = PayRollSystem.getPositionOfName(employee.getPromotionPos());
+                        Position p = payroll.getPositionOfName(employee.getPromotionPos());
                         int newRank;
                         if (employee.getReachedTopOfScale() != null) {
-                            int diffYear = PayRollSystem.simulatedDate.getYear() - employee.getReachedTopOfScale().getYear();
-                            if (diffYear > p.getPayScale().size()) {
-                                newRank = p.getPayScale().size();
+                            int diffYear = payroll.getSimulatedDate().getYear() - employee.getReachedTopOfScale().getYear();
+                            if (diffYear > p.getTopRank()) {
+                                newRank = p.getTopRank();
                             } else {
                                 newRank = diffYear;
                             }
                         } else {
                             newRank = 1;
                         }
-                        System.out.printf("Promotion Offer: %s at rank %d%n", employee.getPromotionPos(), newRank);
-                        System.out.println("A)ccept\tR)eject");
+                        out.printf("Promotion Offer: %s at rank %d%n", employee.getPromotionPos(), newRank);
+                        out.println("A)ccept\tR)eject");
                         String response;
                         String allowedResponses = "AR";
 
@@ -257,23 +283,22 @@ public class Menu {
                                     throw new PayRollException("Invalid Command.\n" + "   ----------");
                                 }
                                 if (!allowedResponses.contains(response)) {
-                                    System.out.println("A)ccept\tR)eject");
+                                    out.println("A)ccept\tR)eject");
                                     response = in.nextLine().toUpperCase();
                                 }
                             } while (!allowedResponses.contains(response));
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
                         }
 
                         if (response.equals("A")) {
                             payroll.executePromotion(employee, employee.getPromotionPos());
-                            employee.setPromotionDue(false);
-                            System.out.println("Promotion Accepted.");
+                            out.println("Promotion Accepted.");
                             launchS = launchS.replace("M)anage Promotion Offers\t", "");
                             allowed = allowed.replace("M", "");
 
                         } else if (response.equals("R")) {
-                            System.out.println("Promotion Rejected.");
+                            out.println("Promotion Rejected.");
                             launchS = launchS.replace("M)anage Promotion Offers\t", "");
                             allowed = allowed.replace("M", "");
                         }
@@ -282,49 +307,68 @@ public class Menu {
                         String employeeID = "";
                         try {
                             while (!pOK) {
-                                System.out.print("Enter Employee ID Number: ");
+                                out.print("Enter Employee ID Number: ");
                                 employeeID = in.nextLine();
                                 // check if the id number exists
                                 try {
-                                    idNumberExists(employeeID);
+                                    idNumberExists(payroll, employeeID);
                                     if (employee.getEmployeeId() == Integer.parseInt(employeeID)) {
                                         throw new PayRollException("nice try, no promoting yourself");
                                     }
-                                    Employee e = findEmployeeById(Integer.parseInt(employeeID));
+                                    Employee e = findEmployeeById(payroll, Integer.parseInt(employeeID));
                                     if (e instanceof PartTimeEmployee) {
                                         throw new PayRollException("Only full-time employees can be promoted.");
                                     }
                                     pOK = true;
                                 } catch (PayRollException ex) {
-                                    System.out.println(ex.getMessage());
+                                    out.println(ex.getMessage());
                                 }
                             }
-                            System.out.print("Enter New Position: ");
+                            out.print("Enter New Position: ");
                             String newPos;
                             do {
                                 newPos = in.nextLine();
                             } while (newPos.isEmpty());
                             payroll.offerPromotion(Integer.parseInt(employeeID), newPos);
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
+                        }
+                    } else if (command.equals("B") && allowed.contains("B")) {
+                        out.print("Enter Path of Promotions File (employeeId,position per line): ");
+                        String path;
+                        do {
+                            path = in.nextLine().trim();
+                        } while (path.isEmpty());
+                        try {
+                            out.println(payroll.importPromotions(Path.of(path)).summary(10));
+                        } catch (IOException | InvalidPathException ex) {
+                            out.println("Could not read promotions file: " + ex.getMessage());
                         }
                     } else if (command.equals("S") && allowed.contains("S")) {
-                        System.out.print("Enter Total Hours for Month: ");
-                        double hours = in.nextDouble();
-                        // submit hours and make payslip for part-time employee
-                        ((PartTimeEmployee) employee).setHoursWorked(hours);
-                        ((PartTimeEmployee) employee).setLastClaimDate(PayRollSystem.simulatedDate);
-                        if (((PartTimeEmployee) employee).isClaimSubmittedOnTime()) {
-                            employee.addPayslip(new Payslip(employee));
-                            ((PartTimeEmployee) employee).setHoursWorked(0);
-                        } else {
-                            ((PartTimeEmployee) employee).setUnpaidHours(hours);
-                            ((PartTimeEmployee) employee).setHoursWorked(0);
+                        out.println("Next Claim Deadline: " + payroll.getNextClaimDeadline().format(PayRollSystem.DATE_FORMAT));
+                        double hours = 0;
+                        boolean validHours = false;
+                        while (!validHours) {
+                            out.print("Enter Total Hours for Month: ");
+                            String hoursInput = in.nextLine().trim();
+                            try {
+                                hours = Double.parseDouble(hoursInput);
+                                validHours = hours > 0 && hours <= ClaimImporter.MAX_HOURS;
+                            } catch (NumberFormatException ex) {
+                                // reported below along with hours out of range
+                            }
+                            if (!validHours) {
+                                out.println("Invalid hours. Please enter a number more than 0 and at most "
+                                        + (int) ClaimImporter.MAX_HOURS + ".");
+                            }
                         }
+                        // submit hours and make payslip for part-time employee
+                        payroll.submitClaim((PartTimeEmployee) employee, hours);
+                        out.println("Claim submitted, to be paid in the next pay run.");
                     } else if (command.equals("T") && allowed.contains("T")) {
-                        System.out.println("Advance Time By One M)onth\tY)ear");
+                        out.println("Advance Time By One M)onth\tY)ear\tF)ast-Forward Years");
                         String ans;
-                        String allowedInput = "MY";
+                        String allowedInput = "MYF";
 
                         do {
                             ans = in.nextLine().toUpperCase();
@@ -336,22 +380,38 @@ public class Menu {
                                     throw new PayRollException("Invalid Command.\n   ----------");
                                 }
                                 if (!allowedInput.contains(ans)) {
-                                    System.out.print("M)onth\tY)ear");
+                                    out.print("M)onth\tY)ear\tF)ast-Forward");
                                     ans = in.nextLine().toUpperCase();
                                 }
                             } while (!allowedInput.contains(ans));
                         } catch (PayRollException ex) {
-                            System.out.println(ex.getMessage());
+                            out.println(ex.getMessage());
 
                         }
                         if (ans.equals("M")) {
                             payroll.advanceMonth();
                         } else if (ans.equals("Y")) {
                             payroll.advanceYear();
+                        } else if (ans.equals("F")) {
+                            int years = 0;
+                            while (years < 1 || years > MAX_FAST_FORWARD_YEARS) {
+                                out.print("Enter Number of Years (no payslips are made for them): ");
+                                String yearsInput = in.nextLine().trim();
+                                try {
+                                    years = Integer.parseInt(yearsInput);
+                                } catch (NumberFormatException ex) {
+                                    years = 0;
+                                }
+                                if (years < 1 || years > MAX_FAST_FORWARD_YEARS) {
+                                    out.println("Invalid number of years. Please enter a whole number from 1 to "
+                                            + MAX_FAST_FORWARD_YEARS + ".");
+                                }
+                            }
+                            payroll.fastForward(years);
                         }
                     } else if (command.equals("L") && allowed.contains("L")) {
                         evenMore = false;
-                        System.out.println("Logged out successfully.");
+                        out.println("Logged out successfully.");
                     }
                 }
             } else if (command.equals("Q")) {
@@ -360,30 +420,16 @@ public class Menu {
         }
     }
 
-    /**
-     * Converts the employee's ID number to their index in the employee array and all CSVs
-     *
-     * @param inputId ID number of target employee
-     * @return employee's position in all arrayLists
-     */
-    protected int convertToIndex(int inputId) {
-        return (inputId % 1000);
-    }
-
     /**
      * Finds an employee by their ID number.
      *
-     * @param id The ID number of the employee to find.
+     * @param payroll The payroll system the employee belongs to.
+     * @param id      The ID number of the employee to find.
      * @return The Employee object corresponding to the given ID.
      * @throws PayRollException If the employee ID does not exist.
      */
-    protected Employee findEmployeeById(int id) throws PayRollException {
-        for (Employee employee : PayRollSystem.employeeArrayList) {
-            if (employee.getEmployeeId() == id) {
-                return employee;
-            }
-        }
-        throw new PayRollException("ID Number does not exist: " + id);
+    protected Employee findEmployeeById(PayRollSystem payroll, int id) throws PayRollException {
+        return payroll.getEmployeeOfId(id);
     }
 
     /**
@@ -393,28 +439,24 @@ public class Menu {
      * @return the first digit of their id
      */
     protected int findUserType(int inputId) {
-        return (inputId / 1000);
+        return Employee.userTypeOf(inputId);
     }
 
     /**
      * Checks if an ID number exists in the system.
      *
+     * @param payroll The payroll system the ID is looked up in.
      * @param idInput The ID number to validate.
      * @return True if the ID exists; otherwise, false.
      * @throws PayRollException If the ID is invalid or does not exist.
      */
-    protected boolean idNumberExists(String idInput) throws PayRollException {
+    protected boolean idNumberExists(PayRollSystem payroll, String idInput) throws PayRollException {
         boolean found = false;
-        if (!Pattern.matches("[0-9]+", idInput) || idInput.length() != 4) {
-            throw new PayRollException("Not a valid ID number. Please enter a series of 4 digits.\n" +
+        if (!Pattern.matches("[0-9]+", idInput) || (idInput.length() != 4 && idInput.length() != 9)) {
+            throw new PayRollException("Not a valid ID number. Please enter a series of 4 or 9 digits.\n" +
                     "   ---------------------------------------------------");
-        } else if (convertToIndex(Integer.parseInt(idInput)) < PayRollSystem.employeeArrayList.size()) {
-            for (Employee emp : PayRollSystem.employeeArrayList) {
-                if (emp.getEmployeeId() == Integer.parseInt(idInput)) {
-                    found = true;
-                    break;
-                }
-            }
+        } else {
+            found = payroll.containsEmployee(Integer.parseInt(idInput));
         }
         if (!found) {
             throw new PayRollException("ID Number does not exist. Try again.\n" +
@@ -426,21 +468,14 @@ public class Menu {
     /**
      * Verifies if the given password matches the stored password for the specified ID.
      *
+     * @param payroll       The payroll system holding the employee's credentials.
      * @param id            The ID of the employee.
      * @param passwordInput The password to verify.
      * @return True if the password is correct.
-     * @throws PayRollException If the password is incorrect or there is a file reading error.
+     * @throws PayRollException If the password is incorrect.
      */
-    private boolean passwordIsCorrect(int id, String passwordInput) throws PayRollException {
-        Employee e = PayRollSystem.employeeArrayList.get(convertToIndex(id));
-        String actualPassword = "";
-        try {
-            String[] passwordFileContents = Files.readString(Path.of("PasswordFile.csv")).split("(\\r?\\n)");
-            actualPassword = passwordFileContents[convertToIndex(id)];
-        } catch (IOException ex) {
-            throw new PayRollException("file reading error");
-        }
-        if (!actualPassword.equals(passwordInput)) throw new PayRollException("Password Incorrect. Try again.\n" +
+    private boolean passwordIsCorrect(PayRollSystem payroll, int id, String passwordInput) throws PayRollException {
+        if (!payroll.checkPassword(id, passwordInput)) throw new PayRollException("Password Incorrect. Try again.\n" +
                 "   ------------------------");
         return true;
     }
@@ -448,27 +483,28 @@ public class Menu {
     /**
      * Handles the login process for the payroll system.
      *
+     * @param payroll The payroll system being logged in to.
      * @return The Employee object of the logged-in user.
      * @throws PayRollException If the login fails due to incorrect ID or password.
      */
-    private Employee logIn() throws PayRollException {
+    private Employee logIn(PayRollSystem payroll) throws PayRollException {
         boolean idOK = false;
         boolean passwordOK = false;
         int idNum = 0;
 
-        System.out.println("-- Log In --");
+        out.println("-- Log In --");
 
         // ID Validation Loop
         while (!idOK) {
-            System.out.print("ID Number: ");
+            out.print("ID Number: ");
             String idInput = in.nextLine().trim();
 
             try {
-                idNumberExists(idInput);
+                idNumberExists(payroll, idInput);
                 idNum = Integer.parseInt(idInput);
                 idOK = true;
             } catch (PayRollException ex) {
-                System.out.println(ex.getMessage());
+                out.println(ex.getMessage());
             }
         }
         //Max attempts created to prevent soft locks
@@ -479,18 +515,18 @@ public class Menu {
                 throw new PayRollException("Maximum Login Attempts reached. Returning to main menu.");
             }
             int attemptsLeft = maxAttempts - attempts;
-            System.out.print("Enter password (You have " + attemptsLeft + " attempt" + (attemptsLeft > 1 ? "s" : "") + "): ");
+            out.print("Enter password (You have " + attemptsLeft + " attempt" + (attemptsLeft > 1 ? "s" : "") + "): ");
             String passwordInput = in.nextLine();
             try {
-                passwordIsCorrect(idNum, passwordInput);
+                passwordIsCorrect(payroll, idNum, passwordInput);
                 passwordOK = true;
             } catch (PayRollException ex) {
-                System.out.println(ex.getMessage());
+                out.println(ex.getMessage());
                 attempts++;
             }
         }
         // Find and return the logged-in employee
-        return PayRollSystem.employeeArrayList.get(convertToIndex(idNum));
+        return findEmployeeById(payroll, idNum);
     }
 
     /**
@@ -500,48 +536,50 @@ public class Menu {
      */
     private void removeEmployee(PayRollSystem payroll) {
         try {
-            System.out.print("Enter the ID of the employee to remove: ");
+            out.print("Enter the ID of the employee to remove: ");
             int idToRemove = Integer.parseInt(in.nextLine().trim());
 
-            Employee employeeToRemove = findEmployeeById(idToRemove);
-            System.out.println("Are you sure you want to remove " + employeeToRemove.getName() + " (ID: " + idToRemove + ")? (yes/no)");
+            Employee employeeToRemove = findEmployeeById(payroll, idToRemove);
+            out.println("Are you sure you want to remove " + employeeToRemove.getName() + " (ID: " + idToRemove + ")? (yes/no)");
             String confirmation = in.nextLine().trim().toLowerCase();
             if (!confirmation.equals("yes")) {
-                System.out.println("Removal canceled.");
+                out.println("Removal canceled.");
                 return;
             }
             payroll.removeEmployee(employeeToRemove);
         } catch (NumberFormatException e) {
-            System.out.println("Invalid ID format. Please enter a numeric ID.");
+            out.println("Invalid ID format. Please enter a numeric ID.");
         } catch (PayRollException e) {
-            System.out.println(e.getMessage()); // Handle case where ID does not exist
+            out.println(e.getMessage()); // Handle case where ID does not exist
         }
     }
 
     /**
      * Method to handle the viewing of other employee's details in the system.
      * Outputs in print statements.
+     *
+     * @param payroll The payroll system the employee belongs to.
      */
-    private void viewEmployee() {
+    private void viewEmployee(PayRollSystem payroll) {
         boolean viewIdOK = false;
         int viewID = 0;
         while (!viewIdOK) {
-            System.out.print("Enter ID of Employee to View Details: ");
+            out.print("Enter ID of Employee to View Details: ");
             String idToView = in.nextLine().trim();
 
             // check if the id number exists in the csv file
             try {
-                idNumberExists(idToView);
+                idNumberExists(payroll, idToView);
                 viewID = Integer.parseInt(idToView); // if the id is correct, parse it to an int
                 viewIdOK = true; // end this loop
             } catch (PayRollException ex) {
-                System.out.println(ex.getMessage());
+                out.println(ex.getMessage());
             }
         }
-        Employee employeeToView = PayRollSystem.employeeArrayList.get(convertToIndex(viewID));
-        System.out.println("\n--- Employee Details ---\n");
-        System.out.println(employeeToView);
-        System.out.println("-------------------------");
+        Employee employeeToView = findEmployeeById(payroll, viewID);
+        out.println("\n--- Employee Details ---\n");
+        out.println(employeeToView);
+        out.println("-------------------------");
     }
 
 }
@@ -0,0 +1,84 @@
+package payrollsystem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for amounts of money held as a whole number of cents in a long.
+ * Sums of cents are exact, so totals over any number of payslips come out the same every time,
+ * and every helper works on primitives so the payroll hot path does not allocate.
+ * Where a result falls between two cents it is rounded half up.
+ */
+public final class Money {
+
+    /**
+     * Prevents instantiation, as all methods are static.
+     */
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount of euros, such as "87548.00", into cents without going through a double.
+     *
+     * @param amount the amount in euros
+     * @return the amount in cents
+     * @throws NumberFormatException If the amount is not a decimal number.
+     */
+    public static long parse(String amount) {
+        return new BigDecimal(amount.trim()).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Converts an amount of euros to cents.
+     *
+     * @param euros the amount in euros
+     * @return the nearest whole number of cents
+     */
+    public static long ofEuros(double euros) {
+        return Math.round(euros * 100);
+    }
+
+    /**
+     * Multiplies an amount by a factor such as a tax rate or a number of hours.
+     *
+     * @param cents  the amount in cents
+     * @param factor the factor to multiply by
+     * @return the product, rounded to the nearest cent
+     */
+    public static long times(long cents, double factor) {
+        return Math.round(cents * factor);
+    }
+
+    /**
+     * Divides an amount into equal parts, such as an annual salary into months.
+     *
+     * @param cents   the amount in cents
+     * @param divisor the number of parts, greater than 0
+     * @return the size of one part, rounded to the nearest cent
+     */
+    public static long divide(long cents, long divisor) {
+        return Math.floorDiv(2 * cents + divisor, 2 * divisor);
+    }
+
+    /**
+     * Converts an amount in cents to euros, for display or export only.
+     *
+     * @param cents the amount in cents
+     * @return the amount in euros
+     */
+    public static double toEuros(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Formats an amount with two decimal places, such as "14756.50".
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount in euros
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
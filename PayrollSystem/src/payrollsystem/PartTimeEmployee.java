@@ -1,9 +1,7 @@
 package payrollsystem;
 
 import java.time.LocalDate;
-import java.time.DayOfWeek;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 
 /**
  * Represents a part-time employee and their associated pay details.
@@ -12,30 +10,47 @@ import java.util.ArrayList;
 public class PartTimeEmployee extends Employee {
     private double hoursWorked;
     private LocalDate lastClaimDate;
-    private double hourlyRate;
+    private long hourlyRate;
     private int rankIndex;
-    private double annualSalary;
+    private long annualSalary;
     private double unpaidHours; //hours from late pay-claim submission from the previous month
 
     /**
-     * Constructs an instance of PartTimeEmployee based on details parsed from a CSV string,
+     * Constructs an instance of PartTimeEmployee from the already separated fields of a CSV row,
      * Passes these details to the parent Employee class constructor.
      * Initializes hours worked and calculates pay-related attributes based on position and rank.
      *
-     * @param details A comma-separated string containing the employee's information.
+     * @param employeeId The unique ID of the employee.
+     * @param position   The employee's position, looked up from the title in the row.
+     * @param d          The employee's information, one field per element.
      * @throws IllegalArgumentException if the employee's rank is out of bounds for the salary scale.
      */
-    public PartTimeEmployee(String details) {
-        String[] d = details.split(",");
-        super(d[0], d[1], d[2], d[3], d[4], d[5]);
+    public PartTimeEmployee(int employeeId, Position position, String[] d) {
+        this(employeeId, d[0], d[1], position, Integer.parseInt(d[3]), parseDate(d[4]), insuranceCost(d[5]));
+    }
+
+    /**
+     * Constructs an instance of PartTimeEmployee from details that are already parsed.
+     *
+     * @param employeeId      The unique ID of the employee.
+     * @param name            The name of the employee.
+     * @param phoneNumber     The phone number of the employee.
+     * @param position        The employee's position.
+     * @param rank            The employee's rank.
+     * @param lastPromotion   The date of the employee's last promotion.
+     * @param healthInsurance The monthly cost of the employee's health insurance in cents.
+     * @throws IllegalArgumentException if the employee's rank is out of bounds for the salary scale.
+     */
+    PartTimeEmployee(int employeeId, String name, String phoneNumber, Position position, int rank,
+                     LocalDate lastPromotion, long healthInsurance) {
+        super(employeeId, name, phoneNumber, position, rank, lastPromotion, healthInsurance);
         this.hoursWorked = 0;
 
-        ArrayList<Double> salaryScale = getPosition().getPayScale();
         setRankIndex();
-        if (getRankIndex() < 0 || getRankIndex() >= salaryScale.size()) {
+        if (getRankIndex() < 0 || getRankIndex() >= getPosition().getScaleLength()) {
             throw new IllegalArgumentException("Rank out of bounds for the salary scale: " + getRankIndex());
         }
-        setAnnualSalary(salaryScale);
+        setAnnualSalary();
         setHourlyRate();
     }
 
@@ -58,86 +73,70 @@ public class PartTimeEmployee extends Employee {
     /**
      * Gets the annual salary for the employee.
      *
-     * @return The annual salary.
+     * @return The annual salary in cents.
      */
-    public double getAnnualSalary() {
+    public long getAnnualSalary() {
         return annualSalary;
     }
 
     /**
-     * Sets the annual salary based on the rank index and salary scale.
-     *
-     * @param salaryScale The salary scale for the position.
+     * Sets the annual salary to the salary of the employee's rank on their position's pay scale.
      */
-    public void setAnnualSalary(ArrayList<Double> salaryScale) {
-        this.annualSalary = salaryScale.get(getRankIndex());
+    public void setAnnualSalary() {
+        this.annualSalary = getPosition().getSalary(getRank());
         setHourlyRate();
     }
 
+    /**
+     * Sets the rank of the employee and moves their hourly rate to the salary of the new rank.
+     *
+     * @param rank the new rank
+     */
+    @Override
+    public void setRank(int rank) {
+        super.setRank(rank);
+        setRankIndex();
+        setAnnualSalary();
+    }
+
     /**
      * Gets the hourly rate for the employee.
      *
-     * @return The hourly rate.
+     * @return The hourly rate in cents.
      */
-    public double getHourlyRate() {
+    public long getHourlyRate() {
         return hourlyRate;
     }
 
     /**
-     * Sets the hourly rate by dividing the annual salary by 1440 (assumed work hours per year).
+     * Sets the hourly rate by dividing the annual salary by 1440 (assumed work hours per year), to the nearest cent.
      */
     public void setHourlyRate() {
-        this.hourlyRate = getAnnualSalary() / 1440;
+        this.hourlyRate = Money.divide(getAnnualSalary(), 1440);
     }
 
     /**
      * Calculates the base pay for the pay period based on hours worked and hourly rate.
      *
-     * @return The calculated base pay.
+     * @return The calculated base pay in cents.
      */
     @Override
-    public double calculateBasePay() {
-        return hourlyRate * hoursWorked;
-    }
-
-    /**
-     * Finds the second Friday of the given month and year.
-     *
-     * @param simDate The date to base the calculation on (usually the simulated date used when advancing time in the menu class).
-     * @return The date of the second Friday.
-     */
-    private LocalDate findSecondFriday(LocalDate simDate) {
-        int year = simDate.getYear();
-        int month = simDate.getMonthValue();
-        LocalDate date = LocalDate.of(year, month, 1);
-
-        int fridayCount = 0;
-
-        // Loop through the days of the month
-        while (date.getMonthValue() == month) {
-            if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
-                fridayCount++;
-                if (fridayCount == 2) {
-                    break; // Stop when the second Friday is found
-                }
-            }
-            date = date.plusDays(1);
-        }
-
-        return date; // Return the date of the second Friday
+    public long calculateBasePay() {
+        return Money.times(hourlyRate, getHoursWorked());
     }
 
     /**
-     * Checks whether the last pay-claim was submitted on time.
+     * Checks whether the last pay-claim was submitted on time for the given pay period.
      *
+     * @param payPeriod A date in the month being paid.
      * @return True if the claim was submitted on time, false otherwise.
      */
-    public boolean isClaimSubmittedOnTime() {
+    public boolean isClaimSubmittedOnTime(LocalDate payPeriod) {
+        LocalDate lastClaimDate = getLastClaimDate();
         if (lastClaimDate == null) {
             return false;
         } else {
-            return lastClaimDate.isBefore(findSecondFriday(PayRollSystem.simulatedDate)) &&
-                    lastClaimDate.isAfter(findSecondFriday(PayRollSystem.simulatedDate.minusMonths(1)));
+            return ClaimDeadlines.isOnTime(lastClaimDate.toEpochDay(), ClaimDeadlines.epochMonth(payPeriod));
         }
     }
 
@@ -147,7 +146,7 @@ public class PartTimeEmployee extends Employee {
      * @return The hours worked.
      */
     public double getHoursWorked() {
-        return hoursWorked;
+        return getColumns() == null ? hoursWorked : getColumns().getHoursWorked(getRow());
     }
 
     /**
@@ -156,7 +155,11 @@ public class PartTimeEmployee extends Employee {
      * @param hoursWorked Hours to add or set to 0 to reset.
      */
     public void setHoursWorked(double hoursWorked) {
-        this.hoursWorked = hoursWorked;
+        if (getColumns() == null) {
+            this.hoursWorked = hoursWorked;
+        } else {
+            getColumns().setHoursWorked(getRow(), hoursWorked);
+        }
     }
 
     /**
@@ -165,7 +168,7 @@ public class PartTimeEmployee extends Employee {
      * @return The unpaid hours.
      */
     public double getUnpaidHours() {
-        return unpaidHours;
+        return getColumns() == null ? unpaidHours : getColumns().getUnpaidHours(getRow());
     }
 
     /**
@@ -174,10 +177,16 @@ public class PartTimeEmployee extends Employee {
      * @param unpaidHours Unpaid hours to add or reset to 0.
      */
     public void setUnpaidHours(double unpaidHours) {
+        double total;
         if (unpaidHours == 0) {
-            this.unpaidHours = unpaidHours; //setting it to zero clears it
+            total = unpaidHours; //setting it to zero clears it
         } else {
-            this.unpaidHours += unpaidHours; //otherwise these can stack from late acclaim submissions until next payslip is generated
+            total = getUnpaidHours() + unpaidHours; //otherwise these can stack from late acclaim submissions until next payslip is generated
+        }
+        if (getColumns() == null) {
+            this.unpaidHours = total;
+        } else {
+            getColumns().setUnpaidHours(getRow(), total);
         }
     }
 
@@ -187,7 +196,7 @@ public class PartTimeEmployee extends Employee {
      * @return The last claim date.
      */
     public LocalDate getLastClaimDate() {
-        return lastClaimDate;
+        return getColumns() == null ? lastClaimDate : getColumns().getLastClaimDate(getRow());
     }
 
     /**
@@ -196,7 +205,35 @@ public class PartTimeEmployee extends Employee {
      * @param lastClaimDate The date of the last claim.
      */
     public void setLastClaimDate(LocalDate lastClaimDate) {
-        this.lastClaimDate = lastClaimDate;
+        if (getColumns() == null) {
+            this.lastClaimDate = lastClaimDate;
+        } else {
+            getColumns().setLastClaimDate(getRow(), lastClaimDate);
+        }
+    }
+
+    /**
+     * Attaches the employee to a row of a columnar store, releasing their last claim date along with the
+     * details held by every employee.
+     *
+     * @param columns the columns holding the employee's details
+     * @param row     the employee's row
+     */
+    @Override
+    void attach(EmployeeColumns columns, int row) {
+        super.attach(columns, row);
+        lastClaimDate = null;
+    }
+
+    /**
+     * Copies the employee's details, including their claimed hours, out of their columns and detaches them.
+     */
+    @Override
+    void detach() {
+        hoursWorked = getHoursWorked();
+        unpaidHours = getUnpaidHours();
+        lastClaimDate = getLastClaimDate();
+        super.detach();
     }
 
     /**
@@ -206,17 +243,18 @@ public class PartTimeEmployee extends Employee {
      */
     @Override
     public String toString() {
+        LocalDate lastClaimDate = getLastClaimDate();
         if (lastClaimDate != null) {
             return super.toString() + String.format(
-                    "\nHours Worked: %.2f\nLast Claim Date: %s\nHourly Rate: €%.2f",
-                    hoursWorked,
+                    "\nHours Worked: %.2f\nLast Claim Date: %s\nHourly Rate: €%s",
+                    getHoursWorked(),
                     lastClaimDate.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                    hourlyRate);
+                    Money.format(hourlyRate));
         } else {
             return super.toString() + String.format(
-                    "\nHours Worked: %.2f\nHourly Rate: €%.2f",
-                    hoursWorked,
-                    hourlyRate);
+                    "\nHours Worked: %.2f\nHourly Rate: €%s",
+                    getHoursWorked(),
+                    Money.format(hourlyRate));
         }
     }
 }
@@ -1,42 +1,179 @@
 package payrollsystem;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Scanner;
-import java.io.FileNotFoundException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
 import java.io.IOException;
 
 /**
  * Manages the back end of the payroll system, including employees, positions and payslips.
+ *
+ * <p>The system can be shared by many sessions at once. Changes to the workforce as a whole, such as adding
+ * or removing employees and advancing the simulated date, hold the write side of a read/write lock.
+ * Lookups hold the read side, so they run in parallel, and changes to a single employee also take that
+ * employee's striped lock.</p>
+ *
+ * <p>Every payroll system keeps its own employees, positions, tax rules, passwords and simulated date,
+ * so several independent payroll systems, such as one per faculty or campus, can run in the same program
+ * as long as each has its own data directory.</p>
+ *
+ * <p>A payroll system opened with columnar storage keeps its employees' ranks, positions, dates, insurance tiers
+ * and claimed hours in an {@link EmployeeColumns} store, and runs the month-end over those columns.
+ * With mapped storage the columns are also kept in an {@link EmployeeRecordFile}, which replaces the employee
+ * CSV files: it is mapped at startup instead of parsing text, and every change is written to it in place.
+ * The simulated date and the promotions scheduled in the payroll calendar are saved alongside it in
+ * PayrollCalendar.dat, a {@link PayrollSnapshot} holding no employees, whenever the simulated date moves on
+ * or a promotion is scheduled.</p>
+ *
+ * <p>Otherwise, the positions, employees and simulated date are saved to a {@link PayrollSnapshot}
+ * at shutdown and at each checkpoint, and restored from it at the next startup instead of reading the CSV files,
+ * as long as none of the files it was saved alongside has changed since.</p>
  */
 public class PayRollSystem {
-    public static ArrayList<Employee> employeeArrayList = new ArrayList<>(1);
-    public static ArrayList<Position> positionArrayList = new ArrayList<>(1);
-    public static LocalDate simulatedDate = LocalDate.now();
     public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yy");
-    public static ArrayList<String> passwordList = new ArrayList<>();
+
+    /**
+     * The ways a payroll system can hold its employees.
+     */
+    public enum Storage {
+        /**
+         * Each employee's details are held in their own fields, and changes are journalled to CurrentEmployeeDetails.csv.
+         */
+        OBJECTS,
+        /**
+         * Employees' payroll details are held in an {@link EmployeeColumns} store, and changes are journalled
+         * to CurrentEmployeeDetails.csv.
+         */
+        COLUMNS,
+        /**
+         * Employees' payroll details are held in an {@link EmployeeColumns} store kept in step with the memory-mapped
+         * EmployeeRecords.dat, which is created from EmployeeDetails.csv, or from the employee journal if there is one,
+         * the first time and read instead of them after.
+         */
+        MAPPED
+    }
+
+    private ArrayList<Employee> employeeArrayList = new ArrayList<>(1);
+    private EmployeeDirectory employeeDirectory = new EmployeeDirectory();
+    private EmployeeColumns employeeColumns;
+    private EmployeeRecordFile employeeRecords;
+    private PositionCatalog positionCatalog = new PositionCatalog(new ArrayList<>(1));
+    private TaxRuleCatalog taxRuleCatalog = TaxRuleCatalog.defaults();
+    private EmployeeLoader employeeLoader;
+    private EmployeeLoadReport employeeDetailsLoad;
+    private volatile LocalDate simulatedDate = LocalDate.now();
+    private PayrollCalendar payrollCalendar;
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final StripedLocks employeeLocks = new StripedLocks(64);
+    private final ClaimQueue claimQueue = new ClaimQueue();
+    private final PayrollRunEngine payrollRunEngine;
+    private final Path dataDirectory;
+    private final EmployeeJournal employeeJournal;
+    private PayslipStore payslipStore;
+    private CredentialStore credentialStore;
 
     /**
      * Constructs a new PayRollSystem object, initialising positions, employees and printing info
      */
     public PayRollSystem() {
-        generatePositions();
-        generateEmployees();
-        loadPasswords();
-        generatePastPayslips();
+        this(Path.of(""));
         System.out.println("A List Of All Employees for Demonstration Purposes Only");
         printEmployeeIdsAndNames();
     }
 
+    /**
+     * Constructs a new PayRollSystem object reading and writing its data files in the given directory,
+     * initialising positions and employees without printing anything.
+     *
+     * @param dataDirectory the directory holding the payroll system's CSV and data files
+     */
+    public PayRollSystem(Path dataDirectory) {
+        this(dataDirectory, Storage.OBJECTS);
+    }
+
+    /**
+     * Constructs a new PayRollSystem object reading and writing its data files in the given directory,
+     * holding its employees in the given kind of storage.
+     *
+     * @param dataDirectory the directory holding the payroll system's CSV and data files
+     * @param storage       how the employees' details are held and saved
+     */
+    public PayRollSystem(Path dataDirectory, Storage storage) {
+        this(dataDirectory, storage, new PayrollRunEngine());
+    }
+
+    /**
+     * Constructs a new PayRollSystem object reading and writing its data files in the given directory,
+     * holding its employees in the given kind of storage and running its pay runs on the given engine,
+     * such as one with its own pool so several payroll systems do not share the common pool.
+     *
+     * @param dataDirectory    the directory holding the payroll system's CSV and data files
+     * @param storage          how the employees' details are held and saved
+     * @param payrollRunEngine the engine the month-end pay runs are made on
+     */
+    public PayRollSystem(Path dataDirectory, Storage storage, PayrollRunEngine payrollRunEngine) {
+        this.dataDirectory = dataDirectory;
+        this.payrollRunEngine = payrollRunEngine;
+        employeeJournal = storage == Storage.MAPPED ? null
+                : new EmployeeJournal(dataDirectory.resolve("CurrentEmployeeDetails.csv"));
+        boolean restored = employeeJournal != null && restoreSnapshot();
+        if (!restored) {
+            generatePositions();
+        }
+        generateTaxRules();
+        if (storage == Storage.MAPPED) {
+            mapEmployees();
+        } else {
+            if (!restored && !recoverEmployees()) {
+                generateEmployees();
+            }
+            if (storage == Storage.COLUMNS) {
+                storeEmployeesInColumns();
+            }
+            employeeJournal.setNextEmployeeNumber(employeeLoader.getNextEmployeeNumber());
+            // a restored snapshot was saved alongside the journal on disk, which carries on from where it was
+            if (!restored) {
+                employeeJournal.open(employeeArrayList);
+            }
+        }
+        if (payrollCalendar == null) {
+            payrollCalendar = new PayrollCalendar(simulatedDate);
+        }
+        loadPasswords();
+        openPayslipStore();
+        if (payslipStore.isEmpty()) {
+            generatePastPayslips();
+        }
+    }
+
     /**
      * Prints the IDs, names, and roles of all employees in the system.
      */
     public void printEmployeeIdsAndNames() {
+        stateLock.readLock().lock();
+        try {
+            printEmployeeTable();
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints the table of employee IDs, names and roles, two employees to a line.
+     */
+    private void printEmployeeTable() {
         System.out.printf("%-5s: %-20s: %-30s\t\t%-5s: %-20s: %-30s\n", "ID", "Name", "Role", "ID", "Name", "Role");
         for (int i = 0; i < employeeArrayList.size(); i += 2) {
             // Get the first employee in the pair
@@ -60,19 +197,8 @@ public class PayRollSystem {
     private void generatePositions() {
         String filePath = "PositionDetails.csv";
         try {
-            String contentStr = Files.readString(Path.of("PositionDetails.csv"));
-            String[] blocks = contentStr.split("(\\r?\\n){2}");
-            for (String b : blocks) {
-                ArrayList<String> lines = new ArrayList<>(1);
-                Scanner scanner = new Scanner(b);
-                while (scanner.hasNextLine()) {
-                    lines.add(scanner.nextLine());
-                }
-                for (int i = 1; i < lines.size(); i++) {
-                    positionArrayList.add(new Position(lines.getFirst(), lines.get(i)));
-                }
-            }
-        } catch (FileNotFoundException e) {
+            positionCatalog = PositionCatalog.load(dataDirectory.resolve(filePath));
+        } catch (NoSuchFileException e) {
             System.out.println("File not found: " + filePath);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -80,31 +206,424 @@ public class PayRollSystem {
     }
 
     /**
-     * Generates the list of positions from the EmployeeDetails.csv file
+     * Loads the tax rules for each tax year from the TaxRules.csv file, falling back to the built-in rules if it does not exist
+     */
+    private void generateTaxRules() {
+        String filePath = "TaxRules.csv";
+        try {
+            taxRuleCatalog = TaxRuleCatalog.load(dataDirectory.resolve(filePath));
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found: " + filePath + ", using the built-in tax rules.");
+            taxRuleCatalog = TaxRuleCatalog.defaults();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generates the list of employees from the EmployeeDetails.csv file.
+     * Rows that cannot be loaded are skipped and reported rather than stopping the load.
      */
     private void generateEmployees() {
         String filePath = "EmployeeDetails.csv";
         ArrayList<Employee> empList = new ArrayList<>(1);
+        employeeLoader = new EmployeeLoader(positionCatalog);
         try {
-            File employeesFile = new File(filePath);
-            Scanner scanner = new Scanner(employeesFile);
-            while (scanner.hasNextLine()) {
-                String employeeInfo = scanner.nextLine();
-                String[] partsOfEmployeeInfo = employeeInfo.split(",");
-
-                if (partsOfEmployeeInfo.length == 7) {
-                    empList.add(new PartTimeEmployee(employeeInfo));
-                } else if (partsOfEmployeeInfo.length == 6) {
-                    empList.add(new FullTimeEmployee(employeeInfo));
-                } else {
-                    throw new PayRollException("Fault in Employee CSV formatting");
-                }
+            EmployeeLoadReport report = employeeLoader.load(dataDirectory.resolve(filePath));
+            empList = report.getEmployees();
+            employeeDetailsLoad = report;
+            if (report.hasErrors()) {
+                System.err.println(report.summary(10));
             }
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             System.out.println("File not found: " + filePath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        EmployeeDirectory directory = new EmployeeDirectory(empList.size());
+        for (Employee e : empList) {
+            directory.add(e);
+        }
+        employeeArrayList = empList;
+        employeeDirectory = directory;
+    }
+
+    /**
+     * Recovers the employees from the employee journal, reading back its CurrentEmployeeDetails.csv snapshot and
+     * replaying the changes journalled since. The employees are loaded from EmployeeDetails.csv instead if the
+     * journal has never written a snapshot, or EmployeeDetails.csv has been replaced since the last one.
+     * With mapped storage, which keeps no journal, this is only done when the employee records are first created,
+     * such as for a shard whose employees were written as journal records under the IDs they already had.
+     *
+     * @return true if the employees were recovered, false if they must be loaded from EmployeeDetails.csv
+     */
+    private boolean recoverEmployees() {
+        Path snapshotFile = dataDirectory.resolve("CurrentEmployeeDetails.csv");
+        Path detailsFile = dataDirectory.resolve("EmployeeDetails.csv");
+        ArrayList<Employee> empList = new ArrayList<>();
+        int nextEmployeeNumber;
+        EmployeeJournal journal = employeeJournal != null ? employeeJournal : new EmployeeJournal(snapshotFile);
+        try {
+            if (!Files.exists(snapshotFile) || (Files.exists(detailsFile)
+                    && Files.getLastModifiedTime(detailsFile).compareTo(Files.getLastModifiedTime(snapshotFile)) > 0)) {
+                return false;
+            }
+            nextEmployeeNumber = journal.recover(new EmployeeLoader(positionCatalog), positionCatalog, empList);
+        } catch (IOException e) {
+            System.err.println("Error reading the employee journal, loading from EmployeeDetails.csv instead.");
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (journal != employeeJournal) {
+                journal.close();
+            }
         }
+        if (nextEmployeeNumber < 0) return false;
+        EmployeeDirectory directory = new EmployeeDirectory(empList.size());
+        for (Employee e : empList) {
+            directory.add(e);
+        }
+        employeeArrayList = empList;
+        employeeDirectory = directory;
+        employeeLoader = new EmployeeLoader(positionCatalog, nextEmployeeNumber);
+        return true;
+    }
 
+    /**
+     * Restores the positions, employees and simulated date from the PayrollSnapshot.dat file,
+     * unless it does not exist or any of the files it was saved alongside has changed since.
+     *
+     * @return true if the snapshot was restored, false if the CSV files must be read instead
+     */
+    private boolean restoreSnapshot() {
+        String filePath = "PayrollSnapshot.dat";
+        PayrollSnapshot snapshot;
+        try {
+            snapshot = PayrollSnapshot.read(dataDirectory.resolve(filePath), snapshotSources());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading " + filePath + ", loading from the CSV files instead.");
+            e.printStackTrace();
+            return false;
+        }
+        if (snapshot == null) return false;
+        positionCatalog = snapshot.getPositionCatalog();
+        ArrayList<Employee> empList = snapshot.getEmployees();
+        EmployeeDirectory directory = new EmployeeDirectory(empList.size());
+        for (Employee e : empList) {
+            directory.add(e);
+        }
         employeeArrayList = empList;
+        employeeDirectory = directory;
+        employeeLoader = new EmployeeLoader(positionCatalog, snapshot.getNextEmployeeNumber());
+        simulatedDate = snapshot.getSimulatedDate();
+        payrollCalendar = snapshot.getPayrollCalendar();
+        return true;
+    }
+
+    /**
+     * Writes the positions, employees and simulated date to the PayrollSnapshot.dat file.
+     * The caller must hold the write lock.
+     */
+    private void saveSnapshot() {
+        try {
+            PayrollSnapshot.write(dataDirectory.resolve("PayrollSnapshot.dat"), snapshotSources(), positionCatalog,
+                    employeeArrayList, simulatedDate, payrollCalendar, employeeLoader.getNextEmployeeNumber());
+        } catch (IOException e) {
+            System.err.println("Error writing the payroll snapshot.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Fingerprints the files a snapshot must be read alongside: the position and employee CSV files it replaces,
+     * the payslip store, and the employee journal with its CSV snapshot of the current employee details.
+     *
+     * @return the fingerprint of the files as they are now
+     * @throws IOException If a file's attributes cannot be read.
+     */
+    private long[] snapshotSources() throws IOException {
+        ArrayList<Path> sources = new ArrayList<>(employeeJournal.getJournalFiles());
+        sources.add(dataDirectory.resolve("CurrentEmployeeDetails.csv"));
+        sources.add(dataDirectory.resolve("PositionDetails.csv"));
+        sources.add(dataDirectory.resolve("EmployeeDetails.csv"));
+        sources.add(dataDirectory.resolve("PayslipHistory.dat"));
+        return PayrollSnapshot.fingerprint(sources);
+    }
+
+    /**
+     * Opens the EmployeeRecords.dat file and reads the employees from it. If it does not exist yet, or was never
+     * finished being written, the employees are generated from the EmployeeDetails.csv file and written to it.
+     */
+    private void mapEmployees() {
+        String filePath = "EmployeeRecords.dat";
+        try {
+            employeeRecords = new EmployeeRecordFile(dataDirectory.resolve(filePath), positionCatalog);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (employeeRecords.getNextEmployeeNumber() == 0) {
+            employeeRecords.clear();
+            if (!recoverEmployees()) {
+                generateEmployees();
+            }
+            for (Employee e : employeeArrayList) {
+                employeeRecords.append(e);
+            }
+            employeeRecords.setNextEmployeeNumber(employeeLoader.getNextEmployeeNumber());
+        } else {
+            ArrayList<Employee> empList = employeeRecords.readEmployees();
+            EmployeeDirectory directory = new EmployeeDirectory(empList.size());
+            for (Employee e : empList) {
+                directory.add(e);
+            }
+            employeeArrayList = empList;
+            employeeDirectory = directory;
+            employeeLoader = new EmployeeLoader(positionCatalog, employeeRecords.getNextEmployeeNumber());
+            restoreCalendar();
+        }
+        storeEmployeesInColumns();
+        employeeColumns.setRecordFile(employeeRecords);
+    }
+
+    /**
+     * Restores the simulated date and the scheduled promotions of a payroll system with mapped storage from
+     * the PayrollCalendar.dat file. If it does not exist or cannot be read, the date is left as today.
+     */
+    private void restoreCalendar() {
+        String filePath = "PayrollCalendar.dat";
+        try {
+            PayrollSnapshot calendar = PayrollSnapshot.read(dataDirectory.resolve(filePath), new long[0]);
+            if (calendar != null) {
+                simulatedDate = calendar.getSimulatedDate();
+                payrollCalendar = calendar.getPayrollCalendar();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading " + filePath + ", starting from today's date instead.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves the simulated date and the scheduled promotions of a payroll system with mapped storage to the
+     * PayrollCalendar.dat file, as a snapshot holding no employees since they are already in the employee records.
+     * Has no effect with other storage, whose snapshot holds the calendar along with the employees.
+     * The caller must hold the write lock.
+     */
+    private void saveCalendar() {
+        if (employeeRecords == null) return;
+        try {
+            PayrollSnapshot.write(dataDirectory.resolve("PayrollCalendar.dat"), new long[0], positionCatalog,
+                    List.of(), simulatedDate, payrollCalendar, employeeLoader.getNextEmployeeNumber());
+        } catch (IOException e) {
+            System.err.println("Error writing the payroll calendar.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Moves every employee's payroll details into a new columnar store.
+     */
+    private void storeEmployeesInColumns() {
+        employeeColumns = new EmployeeColumns(positionCatalog, employeeArrayList.size());
+        for (Employee e : employeeArrayList) {
+            employeeColumns.add(e);
+        }
+    }
+
+    /**
+     * Returns the employee with the given ID number.
+     *
+     * @param id the ID number of the employee to be found
+     * @return The employee with the given ID
+     * @throws PayRollException If no employee with the given ID exists.
+     */
+    public Employee getEmployeeOfId(int id) {
+        Employee e;
+        stateLock.readLock().lock();
+        try {
+            e = employeeDirectory.get(id);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        if (e == null) throw new PayRollException("ID Number does not exist: " + id);
+        return e;
+    }
+
+    /**
+     * Checks whether an employee with the given ID number is in the system.
+     *
+     * @param id the ID number to be checked
+     * @return true if the employee exists
+     */
+    public boolean containsEmployee(int id) {
+        stateLock.readLock().lock();
+        try {
+            return employeeDirectory.contains(id);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the PayslipHistory.dat file holding every payslip generated so far.
+     */
+    private void openPayslipStore() {
+        try {
+            payslipStore = new PayslipStore(dataDirectory.resolve("PayslipHistory.dat"), positionCatalog, taxRuleCatalog);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stores a payslip on disk, unless the employee has already been paid for its month.
+     *
+     * @param e the employee being paid
+     * @param p the payslip to be recorded
+     */
+    public void recordPayslip(Employee e, Payslip p) {
+        stateLock.readLock().lock();
+        ReentrantLock lock = employeeLocks.lockFor(e.getEmployeeId());
+        lock.lock();
+        try {
+            payslipStore.append(p);
+        } finally {
+            lock.unlock();
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Submits a part-time employee's claim for the hours they worked this month.
+     * The claim is dated with the simulated date and queued without waiting for any lock, then applied by the next
+     * pay run: a claim made on time is paid in that run, while a late claim is held over as unpaid hours.
+     *
+     * @param pt    the part-time employee making the claim
+     * @param hours the total hours worked in the month
+     */
+    public void submitClaim(PartTimeEmployee pt, double hours) {
+        claimQueue.submit(new ClaimQueue.Claim(pt, simulatedDate, hours));
+    }
+
+    /**
+     * Applies every queued claim made on or before the given date, in the order they were submitted.
+     * The caller must hold the write lock.
+     *
+     * @param date the last claim date to apply
+     */
+    private void applyQueuedClaims(LocalDate date) {
+        if (claimQueue.isEmpty()) return;
+        for (ClaimQueue.Claim claim : claimQueue.drain(date)) {
+            applyClaim(claim.getEmployee(), claim.getClaimDate(), claim.getHours());
+        }
+    }
+
+    /**
+     * Records a claim against a part-time employee for the next pay run to pay.
+     * The caller must hold the write lock.
+     *
+     * @param pt        the part-time employee making the claim
+     * @param claimDate the date the claim was made
+     * @param hours     the total hours worked in the month
+     * @return true if the claim was made on time, false if it is held over as unpaid hours
+     */
+    private boolean applyClaim(PartTimeEmployee pt, LocalDate claimDate, double hours) {
+        pt.setLastClaimDate(claimDate);
+        if (pt.isClaimSubmittedOnTime(claimDate)) {
+            pt.setHoursWorked(hours);
+            return true;
+        }
+        pt.setHoursWorked(0);
+        pt.setUnpaidHours(hours);
+        return false;
+    }
+
+    /**
+     * Imports a file of part-time pay claims, such as one exported by a timesheet system.
+     * Claims are read and parsed a batch at a time, and each batch is applied under the write lock,
+     * so a pay run sees either all of a batch or none of it. Claims already queued by {@link #submitClaim}
+     * are applied before each batch, keeping an employee's claims in the order they were made.
+     *
+     * <p>A claim made on time is recorded for its month's pay run to pay, while a late claim is held over
+     * as unpaid hours, as with {@link #submitClaim}. A claim is rejected if the employee does not exist or is not
+     * part-time, if it is dated after the simulated date, or if it is dated before the last pay run or in a month
+     * the employee has already been paid for.</p>
+     *
+     * @param file the path to a CSV or line-delimited JSON claims file
+     * @return a report counting the claims accepted and late, and listing the claims rejected
+     * @throws IOException If the file cannot be read.
+     */
+    public ClaimImportReport importClaims(Path file) throws IOException {
+        try (ClaimImporter importer = new ClaimImporter(file)) {
+            ClaimImportReport report = importer.getReport();
+            while (importer.readBatch()) {
+                stateLock.writeLock().lock();
+                try {
+                    applyQueuedClaims(simulatedDate);
+                    LocalDate lastPayRun = payrollCalendar.nextDateOf(PayrollCalendar.EventType.PAY_RUN).minusMonths(1);
+                    for (int i = 0; i < importer.size(); i++) {
+                        if (importer.getFault(i) != null) {
+                            importer.reject(i, importer.getFault(i));
+                            continue;
+                        }
+                        Employee e = employeeDirectory.get(importer.getEmployeeId(i));
+                        LocalDate claimDate = importer.getClaimDate(i);
+                        if (e == null) {
+                            importer.reject(i, "ID Number does not exist: " + importer.getEmployeeId(i));
+                        } else if (!(e instanceof PartTimeEmployee)) {
+                            importer.reject(i, "Only part-time employees can submit pay claims.");
+                        } else if (claimDate.isAfter(simulatedDate)) {
+                            importer.reject(i, "Claim is dated after " + simulatedDate.format(DATE_FORMAT));
+                        } else if (!claimDate.isAfter(lastPayRun) || isPaidUpTo(e, claimDate)) {
+                            importer.reject(i, "Pay period has already been run.");
+                        } else {
+                            if (applyClaim((PartTimeEmployee) e, claimDate, importer.getHours(i))) {
+                                report.addAccepted();
+                            } else {
+                                report.addLate();
+                            }
+                        }
+                    }
+                } finally {
+                    stateLock.writeLock().unlock();
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Returns the number of payslips stored for an employee.
+     *
+     * @param e the employee
+     * @return the number of payslips in the employee's history
+     */
+    public int getPayslipCount(Employee e) {
+        return payslipStore.count(e.getEmployeeId());
+    }
+
+    /**
+     * Reads an employee's most recent payslips from the payslip store.
+     *
+     * @param e the employee
+     * @param n the largest number of payslips to return
+     * @return up to n payslips, from the most recent pay date back
+     */
+    public List<Payslip> getRecentPayslips(Employee e, int n) {
+        return payslipStore.readRecent(e, n);
+    }
+
+    /**
+     * Checks whether the payslip store holds a payslip for an employee for the month of the given date or later.
+     *
+     * @param e    the employee
+     * @param date any date in the month
+     * @return true if the employee has already been paid for that month
+     */
+    private boolean isPaidUpTo(Employee e, LocalDate date) {
+        LocalDate latest = payslipStore.getLatestPayDate(e.getEmployeeId());
+        return latest != null && ClaimDeadlines.epochMonth(latest) >= ClaimDeadlines.epochMonth(date);
     }
 
     /**
@@ -114,13 +633,71 @@ public class PayRollSystem {
      * @return The position with the given title
      * @throws PayRollException If no position with the given name exists.
      */
-    public static Position getPositionOfName(String name) {
-        boolean positionFound = false;
-        for (Position p : positionArrayList) {
-            if (p.getTitle().equalsIgnoreCase(name)) return p;
+    public Position getPositionOfName(String name) {
+        return positionCatalog.getPositionOfName(name);
+    }
+
+    /**
+     * Returns every employee in the system, in the order they were added.
+     * The list is copied under the read lock, so it is not changed by employees added or removed later.
+     *
+     * @return an unmodifiable copy of the list of employees
+     */
+    public List<Employee> getEmployees() {
+        stateLock.readLock().lock();
+        try {
+            return List.copyOf(employeeArrayList);
+        } finally {
+            stateLock.readLock().unlock();
         }
-        if (!positionFound) throw new PayRollException(name + ", no such position exists");
-        return null;
+    }
+
+    /**
+     * Returns the catalog of positions in the system.
+     *
+     * @return the position catalog
+     */
+    public PositionCatalog getPositionCatalog() {
+        return positionCatalog;
+    }
+
+    /**
+     * Returns the tax rules used to work out payslip deductions.
+     *
+     * @return the tax rule catalog
+     */
+    public TaxRuleCatalog getTaxRuleCatalog() {
+        return taxRuleCatalog;
+    }
+
+    /**
+     * Checks whether the employees' payroll details are kept in columns.
+     *
+     * @return true if the system was opened in columnar mode
+     */
+    public boolean isColumnar() {
+        return employeeColumns != null;
+    }
+
+    /**
+     * Returns the system's simulated date, which is moved on by the time simulation.
+     *
+     * @return the current simulated date
+     */
+    public LocalDate getSimulatedDate() {
+        return simulatedDate;
+    }
+
+    /**
+     * Creates a new employee belonging to this system from a row of employee details, giving them the next free ID.
+     * The employee is not added to the system until passed to {@link #addEmployee(Employee)}.
+     *
+     * @param details the comma separated details of the employee, ending in ",Parttime" for part-time employees
+     * @return the new full-time or part-time employee
+     * @throws PayRollException If the details are badly formatted or name no known position.
+     */
+    public Employee createEmployee(String details) {
+        return employeeLoader.parseEmployee(details);
     }
 
     /**
@@ -129,29 +706,52 @@ public class PayRollSystem {
      * @param e The employee to be added
      */
     public void addEmployee(Employee e) {
-        employeeArrayList.add(e);
-        System.out.println("Employee " + e.getName() + " added to the system.");
-        updateEmployeeCSV();
-        updateEmployeeCSV();
+        stateLock.writeLock().lock();
+        try {
+            if (employeeColumns != null) {
+                employeeColumns.add(e);
+            }
+            employeeArrayList.add(e);
+            employeeDirectory.add(e);
+            System.out.println("Employee " + e.getName() + " added to the system.");
+            if (employeeRecords != null) {
+                employeeRecords.setNextEmployeeNumber(employeeLoader.getNextEmployeeNumber());
+            } else {
+                employeeJournal.recordAdd(e);
+                employeeJournal.commit(employeeArrayList);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
         String newPassword = e.getName().replaceAll("['\\s]", "") + "123";
-        passwordList.add(newPassword);
-        updatePasswordCSV();
-
+        credentialStore.setPassword(e.getEmployeeId(), newPassword);
     }
 
+    /**
+     * Removes an employee from the system, along with their password.
+     *
+     * @param employee The employee to be removed
+     */
     public void removeEmployee(Employee employee) {
-        if (employeeArrayList.contains(employee)) {
-            employeeArrayList.remove(employee);
-            System.out.println("Employee " + employee.getName() + " with ID " + employee.getEmployeeId() + " removed from the system.");
-            updateEmployeeCSV();
-
-            // Remove password
-            String passwordToRemove = employee.getName().replaceAll("['\\s]", "") + "123";
-            if (passwordList.remove(passwordToRemove)) {
-                updatePasswordCSV();
+        stateLock.writeLock().lock();
+        try {
+            if (employeeDirectory.get(employee.getEmployeeId()) == employee) {
+                employeeArrayList.remove(employee);
+                employeeDirectory.remove(employee.getEmployeeId());
+                if (employeeColumns != null) {
+                    employeeColumns.remove(employee);
+                }
+                System.out.println("Employee " + employee.getName() + " with ID " + employee.getEmployeeId() + " removed from the system.");
+                if (employeeJournal != null) {
+                    employeeJournal.recordRemove(employee);
+                    employeeJournal.commit(employeeArrayList);
+                }
+                credentialStore.remove(employee.getEmployeeId());
+            } else {
+                System.out.println("Employee " + employee.getName() + " not found in the system.");
             }
-        } else {
-            System.out.println("Employee " + employee.getName() + " not found in the system.");
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
@@ -163,11 +763,185 @@ public class PayRollSystem {
      */
     public void executePromotion(Employee e, String newPos) {
         Position p = getPositionOfName(newPos);
+        stateLock.writeLock().lock();
+        try {
+            promote(e, p, simulatedDate, true);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Promotes a batch of full-time employees at once, such as in an academic promotion round.
+     * Every employee and position is checked before anyone is promoted, with each distinct title looked up once,
+     * and if any check fails no promotion is made. New ranks follow the same rules as {@link #executePromotion},
+     * and the whole batch is written to the employee journal with a single commit.
+     *
+     * @param promotions the title of the new position for each employee ID, applied in iteration order
+     * @return the number of employees promoted
+     * @throws PayRollException If any employee does not exist or is part-time, or any position does not exist.
+     */
+    public int executePromotions(Map<Integer, String> promotions) {
+        stateLock.writeLock().lock();
+        try {
+            HashMap<String, Position> resolved = new HashMap<>();
+            ArrayList<Employee> employees = new ArrayList<>(promotions.size());
+            ArrayList<Position> positions = new ArrayList<>(promotions.size());
+            StringBuilder faults = new StringBuilder();
+            for (Map.Entry<Integer, String> promotion : promotions.entrySet()) {
+                String fault = checkPromotion(promotion.getKey(), promotion.getValue(), resolved, employees, positions);
+                if (fault != null) faults.append(System.lineSeparator()).append("  ").append(fault);
+            }
+            if (faults.length() > 0) {
+                throw new PayRollException("No promotions made:" + faults);
+            }
+            promoteAll(employees, positions);
+            return employees.size();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Promotes the employees listed in a file, one "employeeId,position" row each, as HR's bulk promotion.
+     * Rows that cannot be applied are rejected and listed in the report, while the rest are promoted together
+     * and written to the employee journal with a single commit.
+     *
+     * @param file the path to the file of promotions
+     * @return a report counting the employees promoted and listing the rows rejected
+     * @throws IOException If the file cannot be read.
+     */
+    public PromotionReport importPromotions(Path file) throws IOException {
+        PromotionReport report = new PromotionReport(file.getFileName().toString());
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        stateLock.writeLock().lock();
+        try {
+            HashMap<String, Position> resolved = new HashMap<>();
+            HashSet<Employee> seen = new HashSet<>();
+            ArrayList<Employee> employees = new ArrayList<>(lines.size());
+            ArrayList<Position> positions = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank() || (i == 0 && line.regionMatches(true, 0, "employeeId,", 0, 11))) continue;
+                String[] fields = CsvTokenizer.tokenize(line);
+                String fault;
+                if (fields.length != 2) {
+                    fault = "Fault in promotion CSV formatting";
+                } else {
+                    try {
+                        int employeeID = Integer.parseInt(fields[0].trim());
+                        Employee e = employeeDirectory.get(employeeID);
+                        if (seen.contains(e)) {
+                            fault = "Employee is already promoted earlier in the file: " + employeeID;
+                        } else {
+                            fault = checkPromotion(employeeID, fields[1], resolved, employees, positions);
+                            if (fault == null) seen.add(e);
+                        }
+                    } catch (NumberFormatException ex) {
+                        fault = "ID Number is not a number: " + fields[0];
+                    }
+                }
+                if (fault != null) report.addError(i + 1, line, fault);
+            }
+            promoteAll(employees, positions);
+            report.setPromoted(employees.size());
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return report;
+    }
+
+    /**
+     * Checks that an employee can be promoted to a position, and if so adds them to a batch of promotions.
+     * The caller must hold the write lock.
+     *
+     * @param employeeID the ID number of the employee being promoted
+     * @param title      the title of the position they are promoted to
+     * @param resolved   the positions already looked up in this batch, by the title they were given as
+     * @param employees  the employees in the batch, added to if the promotion is valid
+     * @param positions  the positions in the batch, in the same order as the employees
+     * @return the reason the promotion cannot be made, or null if it was added to the batch
+     */
+    private String checkPromotion(int employeeID, String title, Map<String, Position> resolved,
+                                  List<Employee> employees, List<Position> positions) {
+        Employee e = employeeDirectory.get(employeeID);
+        if (e == null) return "ID Number does not exist: " + employeeID;
+        if (e instanceof PartTimeEmployee) return "Only full-time employees can be promoted: " + employeeID;
+        Position p = resolved.get(title);
+        if (p == null) {
+            try {
+                p = positionCatalog.getPositionOfName(title);
+            } catch (PayRollException ex) {
+                return ex.getMessage();
+            }
+            resolved.put(title, p);
+        }
+        employees.add(e);
+        positions.add(p);
+        return null;
+    }
+
+    /**
+     * Promotes every employee in a batch on the simulated date, then records the promotions in the employee journal
+     * and commits them together. The caller must hold the write lock.
+     *
+     * @param employees the employees being promoted
+     * @param positions the position each employee is promoted to, in the same order
+     */
+    private void promoteAll(List<Employee> employees, List<Position> positions) {
+        for (int i = 0; i < employees.size(); i++) {
+            promote(employees.get(i), positions.get(i), simulatedDate, false);
+        }
+        if (employeeJournal != null && !employees.isEmpty()) {
+            for (Employee e : employees) {
+                employeeJournal.recordPromotion(e);
+            }
+            employeeJournal.commit(employeeArrayList);
+        }
+    }
+
+    /**
+     * Schedules a promotion to take effect on a later simulated date, when the time simulation reaches it.
+     *
+     * @param employeeID    The ID number of the employee being promoted
+     * @param newPos        the title of the position to which they are being promoted
+     * @param effectiveDate the date the promotion takes effect, after the current simulated date
+     * @throws PayRollException If the employee or position does not exist, the employee is part-time,
+     *                          or the date is not in the future.
+     */
+    public void schedulePromotion(int employeeID, String newPos, LocalDate effectiveDate) {
+        Employee e = getEmployeeOfId(employeeID);
+        if (e instanceof PartTimeEmployee) {
+            throw new PayRollException("Only full-time employees can be promoted.");
+        }
+        Position p = getPositionOfName(newPos);
+        stateLock.writeLock().lock();
+        try {
+            if (!effectiveDate.isAfter(simulatedDate)) {
+                throw new PayRollException("A promotion must take effect after " + simulatedDate.format(DATE_FORMAT));
+            }
+            payrollCalendar.schedulePromotion(effectiveDate, employeeID, p.getTitle());
+            saveCalendar();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves an employee into a new position. Their new rank depends on how long ago they reached the top of
+     * their old scale, starting from rank 1 if they never did. The caller must hold the write lock.
+     *
+     * @param e          the employee being promoted
+     * @param p          the position they are promoted to
+     * @param date       the date the promotion takes effect
+     * @param journalled true to record the promotion in the employee journal straight away
+     */
+    private void promote(Employee e, Position p, LocalDate date, boolean journalled) {
         int newRank;
         if (e.getReachedTopOfScale() != null) {
-            int diffYear = simulatedDate.getYear() - e.getReachedTopOfScale().getYear();
-            if (diffYear > p.getPayScale().size()) {
-                newRank = p.getPayScale().size();
+            int diffYear = date.getYear() - e.getReachedTopOfScale().getYear();
+            if (diffYear > p.getTopRank()) {
+                newRank = p.getTopRank();
             } else {
                 newRank = diffYear;
             }
@@ -176,8 +950,12 @@ public class PayRollSystem {
         }
         e.setPosition(p);
         e.setRank(newRank);
-        e.setDateOfLastPromotion(simulatedDate);
-        updateEmployeeCSV();
+        e.setDateOfLastPromotion(date);
+        e.setPromotionDue(false);
+        if (journalled && employeeJournal != null) {
+            employeeJournal.recordPromotion(e);
+            employeeJournal.commit(employeeArrayList);
+        }
     }
 
     /**
@@ -187,102 +965,218 @@ public class PayRollSystem {
      * @param newPos     the title of the offered promotion position
      */
     public void offerPromotion(int employeeID, String newPos) {
-        Employee e = employeeArrayList.get(employeeID % 1000);
+        Employee e = getEmployeeOfId(employeeID);
         if (e instanceof PartTimeEmployee) return;
         //a check to throw an exception if the position doesn't exist
         Position testPos = getPositionOfName(newPos);
-        e.setPromotionPos(newPos);
-        e.setPromotionDue(true);
+        stateLock.readLock().lock();
+        ReentrantLock lock = employeeLocks.lockFor(employeeID);
+        lock.lock();
+        try {
+            e.setPromotionPos(newPos);
+            e.setPromotionDue(true);
+        } finally {
+            lock.unlock();
+            stateLock.readLock().unlock();
+        }
     }
 
     /**
      * Method to check if it is appropriate to move employees up their salary scale
      */
     public void moveUpSalaryScale() {
-        //check if the month is October because that is when employee move up the salary scale
-        if (simulatedDate.getMonthValue() == 10) {
+        stateLock.writeLock().lock();
+        try {
+            //check if the month is October because that is when employee move up the salary scale
+            if (simulatedDate.getMonthValue() == 10) {
+                incrementRanks(simulatedDate, true);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves every eligible employee up their salary scale. The caller must hold the write lock.
+     *
+     * @param today      the date of the increment
+     * @param journalled true to record each rank change in the employee journal
+     */
+    private void incrementRanks(LocalDate today, boolean journalled) {
+        boolean journal = journalled && employeeJournal != null;
+        if (employeeColumns != null) {
+            employeeColumns.incrementRanks(today, e -> {
+                if (journal) employeeJournal.recordRankChange(e);
+            });
+        } else {
             //loop to go through each employee in the arraylist
             for (Employee e : employeeArrayList) {
                 //checks if the employee was promoted this year already - if false then employee is eligible for annual rank increase.
-                if (e.getLastPromotionDate().getYear() < simulatedDate.getYear()) {
-                    e.incrementRank();
-                    updateEmployeeCSV();
+                if (e.getLastPromotionDate().getYear() < today.getYear()) {
+                    int oldRank = e.getRank();
+                    e.incrementRank(today);
+                    if (journal && e.getRank() != oldRank) {
+                        employeeJournal.recordRankChange(e);
+                    }
                 }
             }
         }
+        if (journal) employeeJournal.commit(employeeArrayList);
     }
 
     /**
      * Advances the simulated date by one month and then performs all periodic functions of the payroll system
+     *
+     * @return the totals of the month's payroll run
      */
-    public void advanceMonth() {
-        simulatedDate = simulatedDate.plusMonths(1);
-        moveUpSalaryScale();
-        //added check for day < 25
-        if (LocalDate.now().getDayOfMonth() >= 25) {
-            for (Employee e : employeeArrayList) {
-                if (e instanceof FullTimeEmployee) {
-                    e.addPayslip(new Payslip(e));
-                } else if (e instanceof PartTimeEmployee) {
-                    if (((PartTimeEmployee) e).isClaimSubmittedOnTime() ||
-                            (((PartTimeEmployee) e).getUnpaidHours() != 0 && ((PartTimeEmployee) e).getLastClaimDate().isBefore(simulatedDate))) {
-                        ((PartTimeEmployee) e).setHoursWorked(((PartTimeEmployee) e).getHoursWorked() + ((PartTimeEmployee) e).getUnpaidHours());
-                        e.addPayslip(new Payslip(e));
-                        ((PartTimeEmployee) e).setHoursWorked(0);
-                        ((PartTimeEmployee) e).setUnpaidHours(0);
-                    }
-                }
+    public PayrollTotals advanceMonth() {
+        stateLock.writeLock().lock();
+        try {
+            return advanceTo(simulatedDate.plusMonths(1));
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Advances the simulated date by one year, as a single change seen by other sessions
+     */
+    public void advanceYear() {
+        stateLock.writeLock().lock();
+        try {
+            advanceTo(simulatedDate.plusYears(1));
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Advances the simulated date to the given date, taking every event in the payroll calendar that falls due
+     * on the way in date order: pay runs on the 25th, the annual increment in October and scheduled promotions.
+     *
+     * @param date the date to advance to
+     * @return the combined totals of the pay runs taken
+     */
+    public PayrollTotals advanceTo(LocalDate date) {
+        stateLock.writeLock().lock();
+        try {
+            return runCalendar(date, true);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fast-forwards the simulated date by a number of years, taking the annual increments and scheduled promotions
+     * but skipping the pay runs, so no payslips are made for the months passed over. Rank changes are not journalled
+     * one at a time: a single snapshot of the employee details is written at the end instead.
+     *
+     * @param years the number of years to move forward
+     */
+    public void fastForward(int years) {
+        stateLock.writeLock().lock();
+        try {
+            runCalendar(simulatedDate.plusYears(years), false);
+            if (employeeJournal != null) {
+                employeeJournal.compact(employeeArrayList);
             }
-        } else {
-            simulatedDate = simulatedDate.minusMonths(1);
-            for (Employee e : employeeArrayList) {
-                if (e instanceof FullTimeEmployee) {
-                    e.addPayslip(new Payslip(e));
-                } else if (e instanceof PartTimeEmployee) {
-                    if (((PartTimeEmployee) e).isClaimSubmittedOnTime() ||
-                            (((PartTimeEmployee) e).getUnpaidHours() != 0 && ((PartTimeEmployee) e).getLastClaimDate().isBefore(simulatedDate))) {
-                        ((PartTimeEmployee) e).setHoursWorked(((PartTimeEmployee) e).getHoursWorked() + ((PartTimeEmployee) e).getUnpaidHours());
-                        e.addPayslip(new Payslip(e));
-                        ((PartTimeEmployee) e).setHoursWorked(0);
-                        ((PartTimeEmployee) e).setUnpaidHours(0);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the deadline for part-time claims to be paid in the next pay run.
+     *
+     * @return the next second Friday of a month after the simulated date
+     */
+    public LocalDate getNextClaimDeadline() {
+        stateLock.readLock().lock();
+        try {
+            return payrollCalendar.nextDateOf(PayrollCalendar.EventType.CLAIM_DEADLINE);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes every event in the payroll calendar due by the given date and moves the simulated date there.
+     * The caller must hold the write lock.
+     *
+     * @param date     the date to advance to
+     * @param payrolls true to run the pay runs that fall due, false to pass over them
+     * @return the combined totals of the pay runs taken
+     */
+    private PayrollTotals runCalendar(LocalDate date, boolean payrolls) {
+        ArrayList<PayrollTotals> totals = new ArrayList<>();
+        PayrollCalendar.Event event;
+        while ((event = payrollCalendar.next(date)) != null) {
+            simulatedDate = event.getDate();
+            switch (event.getType()) {
+                case PAY_RUN:
+                    if (payrolls) {
+                        applyQueuedClaims(event.getDate());
+                        totals.add(runPayroll(event.getDate()));
                     }
-                }
+                    break;
+                case RANK_INCREMENT:
+                    incrementRanks(event.getDate(), payrolls);
+                    break;
+                case PROMOTION:
+                    Employee e = employeeDirectory.get(event.getEmployeeId());
+                    if (e != null) {// the employee may have left before the promotion took effect
+                        promote(e, positionCatalog.getPositionOfName(event.getPosition()), event.getDate(), payrolls);
+                    }
+                    break;
+                default:
+                    break;// a claim deadline only marks which pay run a claim is paid in
             }
-            simulatedDate = simulatedDate.plusMonths(1);
         }
+        if (date.isAfter(simulatedDate)) {
+            simulatedDate = date;
+        }
+        saveCalendar();
+        return PayrollTotals.sum(totals);
     }
 
     /**
-     * Advances the month 12 times
+     * Pays every eligible employee for the month of the given pay period and stores their payslips.
+     * Employees the payslip store already holds a payslip of that month for are not paid again.
+     * The caller must hold the write lock.
+     *
+     * @param payPeriod a date in the month being paid
+     * @return the totals of the pay run
      */
-    public void advanceYear() {
-        for (int i = 0; i < 12; i++) {
-            advanceMonth();
-        }
+    private PayrollTotals runPayroll(LocalDate payPeriod) {
+        int month = ClaimDeadlines.epochMonth(payPeriod);
+        IntPredicate alreadyPaid = id -> payslipStore.isPaid(id, month);
+        Payslip[] payslips = employeeColumns != null
+                ? payrollRunEngine.run(employeeColumns, payPeriod, taxRuleCatalog, alreadyPaid)
+                : payrollRunEngine.run(employeeArrayList, payPeriod, taxRuleCatalog, alreadyPaid);
+        payslipStore.appendAll(payslips);
+        return PayrollTotals.of(payslips);
     }
 
     /**
-     * Loads the passwords from the PasswordFile.csv into the passwordList ArrayList.
-     * If the file does not exist, it creates a new empty file.
+     * Loads the hashed passwords from the Credentials.csv file, importing the plain text passwords in
+     * PasswordFile.csv the first time the credentials are opened. If the password file does not exist,
+     * it creates a new empty file.
      */
     private void loadPasswords() {
         String filePath = "PasswordFile.csv";
         try {
-            File passwordFile = new File(filePath);
+            credentialStore = new CredentialStore(dataDirectory.resolve("Credentials.csv"), CredentialStore.DEFAULT_ITERATIONS);
+            File passwordFile = dataDirectory.resolve(filePath).toFile();
             if (!passwordFile.exists()) {
                 System.err.println("Password file not found. Creating a new one.");
                 passwordFile.createNewFile();
                 return;
             }
-
-            Scanner scanner = new Scanner(passwordFile);
-            while (scanner.hasNextLine()) {
-                String password = scanner.nextLine().trim();
-                if (!password.isEmpty()) {
-                    passwordList.add(password);
-                }
-            }
-            scanner.close();
+            // rows holding only a password can only be matched to employees just loaded from EmployeeDetails.csv
+            EmployeeLoadReport detailsLoad = employeeDetailsLoad;
+            employeeDetailsLoad = null;
+            credentialStore.importPlainText(passwordFile.toPath(), employeeDirectory::contains,
+                    detailsLoad == null ? null : detailsLoad::getEmployeeOnLine);
         } catch (IOException e) {
             System.err.println("Error loading password file.");
             e.printStackTrace();
@@ -290,82 +1184,79 @@ public class PayRollSystem {
     }
 
     /**
-     * Updates the PasswordFile.csv to reflect the current passwords in the passwordList ArrayList.
+     * Checks whether the given password is correct for an employee.
+     *
+     * @param employeeId the ID of the employee logging in
+     * @param password   the password entered
+     * @return true if the password is correct
      */
-    private void updatePasswordCSV() {
-        String filePath = "PasswordFile.csv";
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (String password : passwordList) {
-                writer.write(password + System.lineSeparator());
+    public boolean checkPassword(int employeeId, String password) {
+        return credentialStore.verify(employeeId, password);
+    }
+
+    /**
+     * Saves a snapshot of the payroll system, so the next startup can restore it instead of reading the CSV files.
+     * With mapped storage only the payroll calendar is saved, as every change is already written to the employee
+     * records.
+     */
+    public void checkpoint() {
+        stateLock.writeLock().lock();
+        try {
+            applyQueuedClaims(simulatedDate);
+            if (employeeJournal == null) {
+                saveCalendar();
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("Error updating the password file.");
-            e.printStackTrace();
+            employeeJournal.commit(employeeArrayList);
+            employeeJournal.awaitCompaction();
+            saveSnapshot();
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
     /**
-     * Method that rewrites the CurrentEmployeeDetails.csv file
+     * Writes a final snapshot of the current employee details and stops background work.
+     * Should be called once the payroll system is no longer in use.
      */
-    private void updateEmployeeCSV() {
-        String filePath = "CurrentEmployeeDetails.csv";
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (Employee e : employeeArrayList) {
-                String healthInsurance;
-                switch ((int) e.getHealthInsurance()) { // Cast to int if necessary
-                    case 40:
-                        healthInsurance = "Basic";
-                        break;
-                    case 60:
-                        healthInsurance = "Standard";
-                        break;
-                    case 100:
-                        healthInsurance = "Enhanced";
-                        break;
-                    case 140:
-                        healthInsurance = "Premium";
-                        break;
-                    default:
-                        healthInsurance = "NULL";
-                }
-
-                String dateFormatted = e.getLastPromotionDate().format(DATE_FORMAT); // Format the date
-
-                String line = String.format("%s,%s,%s,%d,%s,%s",
-                        e.getName(),
-                        e.getPhoneNumber(),
-                        e.getPosition().getTitle(),
-                        e.getRank(),
-                        dateFormatted, // Use formatted date
-                        healthInsurance);
-
-                if (e instanceof PartTimeEmployee) {
-                    line += ",Parttime"; // Add "Parttime" if applicable
-                }
-
-                writer.write(line + System.lineSeparator()); // Write to CSV
+    public void shutdown() {
+        stateLock.writeLock().lock();
+        try {
+            applyQueuedClaims(simulatedDate);
+            if (employeeRecords != null) {
+                saveCalendar();
+                employeeRecords.close();
+            } else {
+                employeeJournal.close(employeeArrayList);
             }
-        } catch (IOException e) {
-            System.err.println("Error updating the CSV file.");
-            e.printStackTrace();
+            payslipStore.close();
+            credentialStore.close();
+            if (employeeJournal != null) {
+                saveSnapshot();
+            }
+        } finally {
+            stateLock.writeLock().unlock();
         }
     }
 
     /**
      * Generates past payslips for employees starting from four months prior to the current date.
-     * Simulates a timeline, advancing the month, and generates payslips for eligible employees.
+     * Simulates a timeline from five months ago to today through the payroll calendar, paying eligible employees
+     * in each pay run on the way.
      */
     public void generatePastPayslips() {
-        simulatedDate = LocalDate.now().minusMonths(5);
-        int monthsIncl25th;
-        if (simulatedDate.getDayOfMonth() >= 25) {
-            monthsIncl25th = 5;
-        } else {
-            monthsIncl25th = 4;
-        }
-        for (int i = 0; i < monthsIncl25th; i++) {
-            advanceMonth();
+        stateLock.writeLock().lock();
+        try {
+            simulatedDate = LocalDate.now().minusMonths(5);
+            PayrollCalendar calendar = new PayrollCalendar(simulatedDate);
+            for (PayrollCalendar.Event promotion : payrollCalendar.getPendingPromotions()) {
+                calendar.schedulePromotion(promotion.getDate(), promotion.getEmployeeId(), promotion.getPosition());
+            }
+            payrollCalendar = calendar;
+            //pays every month whose 25th has passed in the last five months
+            runCalendar(LocalDate.now(), true);
+        } finally {
+            stateLock.writeLock().unlock();
         }
-        simulatedDate = LocalDate.now();
     }
 }
@@ -0,0 +1,237 @@
+package payrollsystem;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The dated events of a payroll system, held in a priority queue ordered by date.
+ * Advancing the simulated date takes only the events that fall due, instead of stepping through every month
+ * and testing what should happen in it.
+ *
+ * <p>Pay runs on the 25th of each month, the annual increment on the 1st of October and the part-time claim
+ * deadline on the second Friday of each month recur: when one is taken, the next one is scheduled in its place.
+ * Promotions are scheduled once, for the date they take effect. Events on the same day are taken in the order
+ * of {@link EventType}, and events of the same type in the order they were scheduled.</p>
+ */
+public class PayrollCalendar {
+    private static final int PAY_DAY = 25;
+
+    /**
+     * The kinds of event in the calendar, in the order they are taken when they fall on the same day.
+     */
+    public enum EventType {
+        /**
+         * The last day part-time claims for the month are on time.
+         */
+        CLAIM_DEADLINE,
+        /**
+         * A promotion taking effect.
+         */
+        PROMOTION,
+        /**
+         * The annual move up the salary scale.
+         */
+        RANK_INCREMENT,
+        /**
+         * The monthly payroll run.
+         */
+        PAY_RUN
+    }
+
+    /**
+     * A single dated event in the calendar.
+     */
+    public static final class Event implements Comparable<Event> {
+        private final LocalDate date;
+        private final EventType type;
+        private final long sequence;
+        private final int employeeId;
+        private final String position;
+
+        /**
+         * Constructs an Event.
+         *
+         * @param date       the date the event falls due
+         * @param type       the kind of event
+         * @param sequence   the order the event was scheduled in
+         * @param employeeId the employee a promotion is for, or 0 for other events
+         * @param position   the title of the position a promotion is to, or null for other events
+         */
+        private Event(LocalDate date, EventType type, long sequence, int employeeId, String position) {
+            this.date = date;
+            this.type = type;
+            this.sequence = sequence;
+            this.employeeId = employeeId;
+            this.position = position;
+        }
+
+        /**
+         * Gets the date the event falls due.
+         *
+         * @return the date of the event
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * Gets the kind of event.
+         *
+         * @return the event type
+         */
+        public EventType getType() {
+            return type;
+        }
+
+        /**
+         * Gets the employee a promotion is for.
+         *
+         * @return the employee's ID, or 0 for events other than promotions
+         */
+        public int getEmployeeId() {
+            return employeeId;
+        }
+
+        /**
+         * Gets the position a promotion is to.
+         *
+         * @return the title of the new position, or null for events other than promotions
+         */
+        public String getPosition() {
+            return position;
+        }
+
+        /**
+         * Orders events by date, then by type, then by the order they were scheduled in.
+         *
+         * @param other the event to compare with
+         * @return a negative number, zero or a positive number as this event is taken before, with or after the other
+         */
+        @Override
+        public int compareTo(Event other) {
+            int byDate = date.compareTo(other.date);
+            if (byDate != 0) return byDate;
+            int byType = type.compareTo(other.type);
+            if (byType != 0) return byType;
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long scheduled;
+
+    /**
+     * Constructs a calendar holding the first of each recurring event after the given date.
+     *
+     * @param today the date the calendar starts from, whose own events are treated as already taken
+     */
+    public PayrollCalendar(LocalDate today) {
+        LocalDate payDay = today.withDayOfMonth(PAY_DAY);
+        schedule(payDay.isAfter(today) ? payDay : payDay.plusMonths(1), EventType.PAY_RUN);
+        LocalDate increment = LocalDate.of(today.getYear(), Month.OCTOBER, 1);
+        schedule(increment.isAfter(today) ? increment : increment.plusYears(1), EventType.RANK_INCREMENT);
+        LocalDate deadline = secondFriday(today);
+        schedule(deadline.isAfter(today) ? deadline : secondFriday(today.plusMonths(1)), EventType.CLAIM_DEADLINE);
+    }
+
+    /**
+     * Schedules a promotion to take effect on the given date.
+     *
+     * @param date       the date the promotion takes effect
+     * @param employeeId the ID of the employee being promoted
+     * @param position   the title of the position they are promoted to
+     */
+    public void schedulePromotion(LocalDate date, int employeeId, String position) {
+        events.add(new Event(date, EventType.PROMOTION, scheduled++, employeeId, position));
+    }
+
+    /**
+     * Takes the next event if it falls due on or before the given date, scheduling the next occurrence
+     * of a recurring event in its place.
+     *
+     * @param date the date being advanced to
+     * @return the next event due by that date, or null if there is none
+     */
+    public Event next(LocalDate date) {
+        Event e = events.peek();
+        if (e == null || e.date.isAfter(date)) return null;
+        events.poll();
+        switch (e.type) {
+            case PAY_RUN:
+                schedule(e.date.plusMonths(1), EventType.PAY_RUN);
+                break;
+            case RANK_INCREMENT:
+                schedule(e.date.plusYears(1), EventType.RANK_INCREMENT);
+                break;
+            case CLAIM_DEADLINE:
+                schedule(secondFriday(e.date.plusMonths(1)), EventType.CLAIM_DEADLINE);
+                break;
+            default:
+                break;
+        }
+        return e;
+    }
+
+    /**
+     * Gets the date of the next event of the given type.
+     *
+     * @param type the kind of event
+     * @return the date of the earliest event of that type, or null if none is scheduled
+     */
+    public LocalDate nextDateOf(EventType type) {
+        LocalDate next = null;
+        for (Event e : events) {
+            if (e.type == type && (next == null || e.date.isBefore(next))) {
+                next = e.date;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Gets the promotions that have been scheduled but have not yet taken effect.
+     *
+     * @return the pending promotion events, in no particular order
+     */
+    public List<Event> getPendingPromotions() {
+        ArrayList<Event> promotions = new ArrayList<>();
+        for (Event e : events) {
+            if (e.type == EventType.PROMOTION) {
+                promotions.add(e);
+            }
+        }
+        return promotions;
+    }
+
+    /**
+     * Returns the number of events in the calendar.
+     *
+     * @return the number of scheduled events, including the next of each recurring event
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Finds the second Friday of the month of the given date, the deadline for part-time claims.
+     *
+     * @param date any date in the month
+     * @return the date of the second Friday
+     */
+    public static LocalDate secondFriday(LocalDate date) {
+        return ClaimDeadlines.secondFriday(date);
+    }
+
+    /**
+     * Schedules a recurring event.
+     *
+     * @param date the date the event falls due
+     * @param type the kind of event
+     */
+    private void schedule(LocalDate date, EventType type) {
+        events.add(new Event(date, type, scheduled++, 0, null));
+    }
+}
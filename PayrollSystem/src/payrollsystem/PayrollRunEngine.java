@@ -0,0 +1,156 @@
+package payrollsystem;
+
+import java.io.Serial;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the monthly payroll for a list of employees, splitting the list into chunks
+ * and building the payslips for each chunk in parallel on a ForkJoin pool.
+ * The pay period is passed in explicitly so a run never reads or changes the simulated date.
+ */
+public class PayrollRunEngine {
+    private static final int DEFAULT_CHUNK_SIZE = 2048;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Constructs a PayrollRunEngine using the common ForkJoin pool and the default chunk size.
+     */
+    public PayrollRunEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a PayrollRunEngine using the given pool and the default chunk size.
+     *
+     * @param pool the pool the payroll run is executed on
+     */
+    public PayrollRunEngine(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a PayrollRunEngine using the given pool and chunk size.
+     *
+     * @param pool      the pool the payroll run is executed on
+     * @param chunkSize the largest number of employees processed by a single task
+     */
+    public PayrollRunEngine(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Generates the payslips of every eligible employee for the given pay period.
+     * Each employee is handled by exactly one task, so per-employee state such as part-time hours
+     * is only ever updated by one thread. Employees already paid for the period are skipped before
+     * anything about them changes.
+     *
+     * @param employees   the employees to be paid
+     * @param payPeriod   a date in the month being paid
+     * @param taxRules    the tax rules the deductions are worked out with
+     * @param alreadyPaid tests whether the employee with a given ID has already been paid for the period
+     * @return the payslips of the run, indexed the same as the employee list, with null for employees who were not paid
+     */
+    public Payslip[] run(List<Employee> employees, LocalDate payPeriod, TaxRuleCatalog taxRules,
+                         IntPredicate alreadyPaid) {
+        Payslip[] results = new Payslip[employees.size()];
+        pool.invoke(new PayrollTask(i -> {
+            Employee e = employees.get(i);
+            return alreadyPaid.test(e.getEmployeeId()) ? null : payEmployee(e, payPeriod, taxRules);
+        }, results, 0, employees.size()));
+        return results;
+    }
+
+    /**
+     * Generates the payslips of every eligible employee in a columnar store for the given pay period,
+     * reading each employee's pay details from the columns rather than from their objects.
+     *
+     * @param columns     the columns of the employees to be paid
+     * @param payPeriod   a date in the month being paid
+     * @param taxRules    the tax rules the deductions are worked out with
+     * @param alreadyPaid tests whether the employee with a given ID has already been paid for the period
+     * @return the payslips of the run, indexed by row, with null for employees who were not paid
+     */
+    public Payslip[] run(EmployeeColumns columns, LocalDate payPeriod, TaxRuleCatalog taxRules,
+                         IntPredicate alreadyPaid) {
+        Payslip[] results = new Payslip[columns.size()];
+        pool.invoke(new PayrollTask(row -> alreadyPaid.test(columns.getEmployee(row).getEmployeeId())
+                ? null : columns.pay(row, payPeriod, taxRules), results, 0, columns.size()));
+        return results;
+    }
+
+    /**
+     * Builds the payslip for a single employee.
+     * Part-time employees are only paid if their claim was submitted on time, or if they have
+     * hours left over from a late claim made before this pay period.
+     *
+     * @param e         the employee to be paid
+     * @param payPeriod a date in the month being paid
+     * @param taxRules  the tax rules the deductions are worked out with
+     * @return the new payslip, or null if the employee is not paid this period
+     */
+    static Payslip payEmployee(Employee e, LocalDate payPeriod, TaxRuleCatalog taxRules) {
+        Payslip p;
+        if (e instanceof PartTimeEmployee) {
+            PartTimeEmployee pt = (PartTimeEmployee) e;
+            if (!(pt.isClaimSubmittedOnTime(payPeriod) ||
+                    (pt.getUnpaidHours() != 0 && pt.getLastClaimDate().isBefore(payPeriod)))) {
+                return null;
+            }
+            pt.setHoursWorked(pt.getHoursWorked() + pt.getUnpaidHours());
+            p = new Payslip(pt, payPeriod, taxRules);
+            pt.setHoursWorked(0);
+            pt.setUnpaidHours(0);
+        } else {
+            p = new Payslip(e, payPeriod, taxRules);
+        }
+        return p;
+    }
+
+    /**
+     * A task paying the employees in one range of the run, splitting itself in half while the range is larger than a chunk.
+     * Tasks are never serialized, so the function and results array they share are transient.
+     */
+    private class PayrollTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final transient IntFunction<Payslip> payOne;
+        private final transient Payslip[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a task covering the employees from index from (inclusive) to index to (exclusive).
+         *
+         * @param payOne  pays the employee at an index, returning their payslip or null
+         * @param results the array the payslips are gathered into
+         * @param from    the first index covered by this task
+         * @param to      the index after the last one covered by this task
+         */
+        PayrollTask(IntFunction<Payslip> payOne, Payslip[] results, int from, int to) {
+            this.payOne = payOne;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = payOne.apply(i);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PayrollTask(payOne, results, from, mid), new PayrollTask(payOne, results, mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package payrollsystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A binary snapshot of a payroll system's positions, employees and simulated date,
+ * read at startup in place of parsing the position and employee CSV files and simulating past months again.
+ *
+ * <p>The snapshot records the size and last modified time of the files it was saved alongside, such as the
+ * employee CSV file, the payslip store and the employee journal. If any of them has changed since, the snapshot
+ * no longer describes the payroll system and is ignored, and the system is loaded from the CSV files instead.</p>
+ *
+ * <p>The file starts with a magic number and version, followed by the source fingerprint, the simulated date,
+ * the next employee number, every position, every employee and then the promotions scheduled in the payroll
+ * calendar. Positions and dates are written as ordinals and epoch days. Payslips are not part of the snapshot, as
+ * the payslip store is their only record. A snapshot of an older version is ignored.</p>
+ */
+public final class PayrollSnapshot {
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte FULL_TIME = 0;
+    private static final byte PART_TIME = 1;
+
+    private final PositionCatalog positionCatalog;
+    private final ArrayList<Employee> employees;
+    private final LocalDate simulatedDate;
+    private final PayrollCalendar payrollCalendar;
+    private final int nextEmployeeNumber;
+
+    /**
+     * Constructs a PayrollSnapshot from the state read back from a snapshot file.
+     *
+     * @param positionCatalog    the positions of the payroll system
+     * @param employees          the employees, in the order they were added
+     * @param simulatedDate      the simulated date when the snapshot was taken
+     * @param payrollCalendar    the payroll calendar from the simulated date on
+     * @param nextEmployeeNumber the number the next new employee's ID is made from
+     */
+    private PayrollSnapshot(PositionCatalog positionCatalog, ArrayList<Employee> employees, LocalDate simulatedDate,
+                            PayrollCalendar payrollCalendar, int nextEmployeeNumber) {
+        this.positionCatalog = positionCatalog;
+        this.employees = employees;
+        this.simulatedDate = simulatedDate;
+        this.payrollCalendar = payrollCalendar;
+        this.nextEmployeeNumber = nextEmployeeNumber;
+    }
+
+    /**
+     * Fingerprints the given files by their size and last modified time.
+     *
+     * @param files the files the snapshot depends on
+     * @return two numbers per file, with -1 and 0 for a file that does not exist
+     * @throws IOException If a file's attributes cannot be read.
+     */
+    public static long[] fingerprint(List<Path> files) throws IOException {
+        long[] fingerprint = new long[files.size() * 2];
+        for (int i = 0; i < files.size(); i++) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(files.get(i), BasicFileAttributes.class);
+                fingerprint[2 * i] = attributes.size();
+                fingerprint[2 * i + 1] = attributes.lastModifiedTime().toMillis();
+            } catch (NoSuchFileException e) {
+                fingerprint[2 * i] = -1;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and moves it into place, so a snapshot cut short is never read.
+     *
+     * @param file               the path of the snapshot file
+     * @param sources            the fingerprint of the files the snapshot was taken alongside
+     * @param positionCatalog    the positions of the payroll system
+     * @param employees          the employees, in the order they were added
+     * @param simulatedDate      the current simulated date
+     * @param payrollCalendar    the payroll calendar, whose scheduled promotions are saved
+     * @param nextEmployeeNumber the number the next new employee's ID is made from
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void write(Path file, long[] sources, PositionCatalog positionCatalog, List<Employee> employees,
+                             LocalDate simulatedDate, PayrollCalendar payrollCalendar, int nextEmployeeNumber)
+            throws IOException {
+        IdentityHashMap<String, Integer> ordinals = new IdentityHashMap<>();
+        List<Position> positions = positionCatalog.getPositions();
+        for (int i = 0; i < positions.size(); i++) {
+            ordinals.putIfAbsent(positions.get(i).getTitle(), i);
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sources.length);
+            for (long s : sources) {
+                out.writeLong(s);
+            }
+            out.writeLong(simulatedDate.toEpochDay());
+            out.writeInt(nextEmployeeNumber);
+            out.writeInt(positions.size());
+            for (Position p : positions) {
+                out.writeUTF(p.getCategory());
+                out.writeUTF(p.getTitle());
+                long[] payScale = p.getPayScale();
+                out.writeInt(payScale.length);
+                for (long salary : payScale) {
+                    out.writeLong(salary);
+                }
+            }
+            out.writeInt(employees.size());
+            for (Employee e : employees) {
+                writeEmployee(out, e, ordinals, positionCatalog);
+            }
+            List<PayrollCalendar.Event> promotions = payrollCalendar.getPendingPromotions();
+            out.writeInt(promotions.size());
+            for (PayrollCalendar.Event promotion : promotions) {
+                out.writeLong(promotion.getDate().toEpochDay());
+                out.writeInt(promotion.getEmployeeId());
+                out.writeUTF(promotion.getPosition());
+            }
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a snapshot, as long as it was taken alongside the same versions of its source files.
+     *
+     * @param file    the path of the snapshot file
+     * @param sources the fingerprint of the files the snapshot depends on, as they are now
+     * @return the snapshot, or null if there is no snapshot or it is out of date
+     * @throws IOException If the file cannot be read or is not a payroll snapshot.
+     */
+    public static PayrollSnapshot read(Path file, long[] sources) throws IOException {
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a payroll snapshot: " + file);
+            }
+            if (in.readInt() != VERSION) return null;
+            long[] saved = new long[in.readInt()];
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = in.readLong();
+            }
+            if (!Arrays.equals(saved, sources)) return null;
+            LocalDate simulatedDate = LocalDate.ofEpochDay(in.readLong());
+            int nextEmployeeNumber = in.readInt();
+            int positionCount = in.readInt();
+            ArrayList<Position> positions = new ArrayList<>(positionCount);
+            for (int i = 0; i < positionCount; i++) {
+                String category = in.readUTF();
+                String title = in.readUTF();
+                long[] payScale = new long[in.readInt()];
+                for (int r = 0; r < payScale.length; r++) {
+                    payScale[r] = in.readLong();
+                }
+                positions.add(new Position(category, title, payScale));
+            }
+            PositionCatalog positionCatalog = new PositionCatalog(positions);
+            int employeeCount = in.readInt();
+            ArrayList<Employee> employees = new ArrayList<>(employeeCount);
+            for (int i = 0; i < employeeCount; i++) {
+                employees.add(readEmployee(in, positionCatalog));
+            }
+            PayrollCalendar payrollCalendar = new PayrollCalendar(simulatedDate);
+            int promotions = in.readInt();
+            for (int i = 0; i < promotions; i++) {
+                LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                int employeeId = in.readInt();
+                payrollCalendar.schedulePromotion(date, employeeId, in.readUTF());
+            }
+            return new PayrollSnapshot(positionCatalog, employees, simulatedDate, payrollCalendar, nextEmployeeNumber);
+        }
+    }
+
+    /**
+     * Gets the positions of the payroll system.
+     *
+     * @return the position catalog built from the snapshot
+     */
+    public PositionCatalog getPositionCatalog() {
+        return positionCatalog;
+    }
+
+    /**
+     * Gets the employees of the payroll system.
+     *
+     * @return the employees, in the order they were added
+     */
+    public ArrayList<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * Gets the simulated date when the snapshot was taken.
+     *
+     * @return the simulated date
+     */
+    public LocalDate getSimulatedDate() {
+        return simulatedDate;
+    }
+
+    /**
+     * Gets the payroll calendar from the simulated date on, with the promotions that were scheduled.
+     *
+     * @return the payroll calendar
+     */
+    public PayrollCalendar getPayrollCalendar() {
+        return payrollCalendar;
+    }
+
+    /**
+     * Gets the number the next new employee's ID is made from, so IDs are not reused after a restart.
+     *
+     * @return the number of employees created so far
+     */
+    public int getNextEmployeeNumber() {
+        return nextEmployeeNumber;
+    }
+
+    /**
+     * Writes an employee's details.
+     *
+     * @param out             the snapshot being written
+     * @param e               the employee to be written
+     * @param ordinals        the ordinal of each position, keyed by the position's own title string
+     * @param positionCatalog the catalog used for titles that are not found in the ordinals
+     * @throws IOException If the snapshot cannot be written.
+     */
+    private static void writeEmployee(DataOutputStream out, Employee e, IdentityHashMap<String, Integer> ordinals,
+                                      PositionCatalog positionCatalog) throws IOException {
+        boolean partTime = e instanceof PartTimeEmployee;
+        out.writeByte(partTime ? PART_TIME : FULL_TIME);
+        out.writeInt(e.getEmployeeId());
+        out.writeUTF(e.getName());
+        out.writeUTF(e.getPhoneNumber());
+        out.writeShort(ordinalOf(e.getPosition().getTitle(), ordinals, positionCatalog));
+        out.writeShort(e.getRank());
+        out.writeInt(EmployeeColumns.toDay(e.getLastPromotionDate()));
+        out.writeInt(EmployeeColumns.toDay(e.getReachedTopOfScale()));
+        out.writeLong(e.getHealthInsurance());
+        out.writeBoolean(e.getPromotionDue());
+        out.writeUTF(e.getPromotionPos() == null ? "" : e.getPromotionPos());
+        if (partTime) {
+            PartTimeEmployee pt = (PartTimeEmployee) e;
+            out.writeInt(EmployeeColumns.toDay(pt.getLastClaimDate()));
+            out.writeDouble(pt.getHoursWorked());
+            out.writeDouble(pt.getUnpaidHours());
+        }
+    }
+
+    /**
+     * Reads an employee written by {@link #writeEmployee}.
+     *
+     * @param in              the snapshot being read
+     * @param positionCatalog the positions the employee's ordinals refer to
+     * @return the employee
+     * @throws IOException If the snapshot cannot be read.
+     */
+    private static Employee readEmployee(DataInputStream in, PositionCatalog positionCatalog) throws IOException {
+        boolean partTime = in.readByte() == PART_TIME;
+        int id = in.readInt();
+        String name = in.readUTF();
+        String phone = in.readUTF();
+        Position position = positionCatalog.getPositionOfOrdinal(in.readShort());
+        int rank = in.readShort();
+        LocalDate lastPromotion = EmployeeColumns.toDate(in.readInt());
+        LocalDate reachedTop = EmployeeColumns.toDate(in.readInt());
+        long healthInsurance = in.readLong();
+        boolean promotionDue = in.readBoolean();
+        String promotionPos = in.readUTF();
+        Employee e;
+        if (partTime) {
+            PartTimeEmployee pt = new PartTimeEmployee(id, name, phone, position, rank, lastPromotion, healthInsurance);
+            pt.setLastClaimDate(EmployeeColumns.toDate(in.readInt()));
+            pt.setHoursWorked(in.readDouble());
+            pt.setUnpaidHours(in.readDouble());
+            e = pt;
+        } else {
+            e = new FullTimeEmployee(id, name, phone, position, rank, lastPromotion, healthInsurance);
+        }
+        e.setReachedTopOfScale(reachedTop);
+        e.setPromotionDue(promotionDue);
+        if (!promotionPos.isEmpty()) {
+            e.setPromotionPos(promotionPos);
+        }
+        return e;
+    }
+
+    /**
+     * Finds the ordinal of a position title, first by the identity of the title string, which is almost always
+     * one of the catalog's own titles, and otherwise through the catalog.
+     *
+     * @param title           the title of the position
+     * @param ordinals        the ordinal of each position, keyed by the position's own title string
+     * @param positionCatalog the catalog used for titles that are not found in the ordinals
+     * @return the ordinal of the position
+     * @throws PayRollException If no position with the title exists.
+     */
+    private static int ordinalOf(String title, IdentityHashMap<String, Integer> ordinals, PositionCatalog positionCatalog) {
+        Integer ordinal = ordinals.get(title);
+        return ordinal != null ? ordinal : positionCatalog.getOrdinalOfName(title);
+    }
+}
@@ -0,0 +1,125 @@
+package payrollsystem;
+
+import java.util.Collection;
+
+/**
+ * The totals of a payroll run: how many employees were paid and how much they were paid in total.
+ * Instances are immutable, so totals from separate runs, such as one per shard, can be merged safely,
+ * and amounts are summed in cents so the totals are exact whatever order the runs are merged in.
+ */
+public final class PayrollTotals {
+    public static final PayrollTotals EMPTY = new PayrollTotals(0, 0, 0, 0);
+    private final int employeesPaid;
+    private final long grossPay;
+    private final long deductions;
+    private final long netPay;
+
+    /**
+     * Constructs a PayrollTotals from already summed figures.
+     *
+     * @param employeesPaid the number of payslips in the run
+     * @param grossPay      the total pay before deductions in cents
+     * @param deductions    the total deductions in cents
+     * @param netPay        the total pay after deductions in cents
+     */
+    public PayrollTotals(int employeesPaid, long grossPay, long deductions, long netPay) {
+        this.employeesPaid = employeesPaid;
+        this.grossPay = grossPay;
+        this.deductions = deductions;
+        this.netPay = netPay;
+    }
+
+    /**
+     * Sums the payslips of a payroll run.
+     *
+     * @param payslips the payslips of the run, where null entries are employees who were not paid
+     * @return the totals of the run
+     */
+    public static PayrollTotals of(Payslip[] payslips) {
+        int paid = 0;
+        long gross = 0;
+        long deductions = 0;
+        long net = 0;
+        for (Payslip p : payslips) {
+            if (p == null) continue;
+            DeductionBreakdown d = p.getDeductions();
+            paid++;
+            gross += p.getBasePay();
+            deductions += d.getTotal();
+            net += d.getNetPay();
+        }
+        return new PayrollTotals(paid, gross, deductions, net);
+    }
+
+    /**
+     * Merges the totals of several payroll runs.
+     *
+     * @param totals the totals to be merged
+     * @return the combined totals
+     */
+    public static PayrollTotals sum(Collection<PayrollTotals> totals) {
+        PayrollTotals result = EMPTY;
+        for (PayrollTotals t : totals) {
+            result = result.plus(t);
+        }
+        return result;
+    }
+
+    /**
+     * Adds another run's totals to these.
+     *
+     * @param other the totals to be added
+     * @return the combined totals
+     */
+    public PayrollTotals plus(PayrollTotals other) {
+        return new PayrollTotals(employeesPaid + other.employeesPaid, grossPay + other.grossPay,
+                deductions + other.deductions, netPay + other.netPay);
+    }
+
+    /**
+     * Gets the number of employees paid.
+     *
+     * @return the number of payslips in the run
+     */
+    public int getEmployeesPaid() {
+        return employeesPaid;
+    }
+
+    /**
+     * Gets the total gross pay.
+     *
+     * @return the total pay before deductions in cents
+     */
+    public long getGrossPay() {
+        return grossPay;
+    }
+
+    /**
+     * Gets the total deductions.
+     *
+     * @return the total of every payslip's deductions in cents
+     */
+    public long getDeductions() {
+        return deductions;
+    }
+
+    /**
+     * Gets the total net pay.
+     *
+     * @return the total pay after deductions in cents
+     */
+    public long getNetPay() {
+        return netPay;
+    }
+
+    /**
+     * Formats the totals on a single line.
+     *
+     * @return the number of employees paid and the gross, deduction and net totals
+     */
+    @Override
+    public String toString() {
+        return String.format("%d paid, Gross: €%s, Deductions: €%s, Net: €%s",
+                employeesPaid, Money.format(grossPay), Money.format(deductions), Money.format(netPay));
+    }
+}
@@ -1,5 +1,6 @@
 package payrollsystem;
 
+import java.io.PrintStream;
 import java.time.LocalDate;
 
 /**
@@ -8,23 +9,25 @@ import java.time.LocalDate;
 public class Payslip {
     private final Employee employee;
     private final LocalDate payDate;
-    private double nettPay;
     private final int rank;
     private final String position;
-    private final double basePay;
+    private final long basePay;
     private double hoursWorked;
-    private double hourlyRate;
+    private long hourlyRate;
+    private final DeductionBreakdown deductions;
 
     /**
-     * Constructs a Payslip for an employee, using the simulated payroll date.
+     * Constructs a Payslip for an employee, paid on the 25th of the month of the given pay period.
      * Initializes pay-related fields based on the employee's rank and type (full-time or part-time).
      *
-     * @param employee The employee for whom the payslip is generated.
+     * @param employee  The employee for whom the payslip is generated.
+     * @param payPeriod A date in the month being paid.
+     * @param taxRules  The tax rules of the payroll system the employee belongs to.
      */
-    public Payslip(Employee employee) {
+    public Payslip(Employee employee, LocalDate payPeriod, TaxRuleCatalog taxRules) {
         this.employee = employee;
-        int year = PayRollSystem.simulatedDate.getYear();
-        int month = PayRollSystem.simulatedDate.getMonthValue();
+        int year = payPeriod.getYear();
+        int month = payPeriod.getMonthValue();
         this.payDate = LocalDate.of(year, month, 25);
         this.position = employee.getPosition().getTitle();
         this.rank = employee.getRank();
@@ -33,6 +36,49 @@ public class Payslip {
             this.hoursWorked = ((PartTimeEmployee) employee).getHoursWorked();
             this.hourlyRate = ((PartTimeEmployee) employee).getHourlyRate();
         }
+        this.deductions = taxRules.forDate(payDate).calculate(basePay, employee.getHealthInsurance());
+    }
+
+    /**
+     * Reconstructs a previously generated Payslip from its stored pay details.
+     *
+     * @param employee    The employee the payslip belongs to.
+     * @param payDate     The date of the payment.
+     * @param rank        The employee's rank when the payslip was generated.
+     * @param position    The title of the employee's position when the payslip was generated.
+     * @param basePay     The gross pay of the payslip in cents.
+     * @param hoursWorked The hours paid, for part-time employees.
+     * @param hourlyRate  The hourly rate paid in cents, for part-time employees.
+     * @param taxRules    The tax rules of the payroll system the employee belongs to.
+     */
+    Payslip(Employee employee, LocalDate payDate, int rank, String position, long basePay,
+            double hoursWorked, long hourlyRate, TaxRuleCatalog taxRules) {
+        this(employee, payDate, rank, position, basePay, hoursWorked, hourlyRate, employee.getHealthInsurance(), taxRules);
+    }
+
+    /**
+     * Constructs a Payslip from pay details already worked out, such as those read from a columnar employee store.
+     *
+     * @param employee        The employee the payslip belongs to.
+     * @param payDate         The date of the payment.
+     * @param rank            The employee's rank.
+     * @param position        The title of the employee's position.
+     * @param basePay         The gross pay of the payslip in cents.
+     * @param hoursWorked     The hours paid, for part-time employees.
+     * @param hourlyRate      The hourly rate paid in cents, for part-time employees.
+     * @param healthInsurance The employee's monthly health insurance cost in cents.
+     * @param taxRules        The tax rules of the payroll system the employee belongs to.
+     */
+    Payslip(Employee employee, LocalDate payDate, int rank, String position, long basePay,
+            double hoursWorked, long hourlyRate, long healthInsurance, TaxRuleCatalog taxRules) {
+        this.employee = employee;
+        this.payDate = payDate;
+        this.rank = rank;
+        this.position = position;
+        this.basePay = basePay;
+        this.hoursWorked = hoursWorked;
+        this.hourlyRate = hourlyRate;
+        this.deductions = taxRules.forDate(payDate).calculate(basePay, healthInsurance);
     }
 
     /**
@@ -45,72 +91,111 @@ public class Payslip {
     }
 
     /**
-     * Calculates the PRSI deduction, which is 4% of the base pay.
+     * Gets the employee the payslip belongs to.
      *
-     * @return The calculated PRSI deduction.
+     * @return The employee paid by this payslip.
      */
-    public double calcPRSI() {
-        return basePay * 0.04;
+    public Employee getEmployee() {
+        return employee;
     }
 
     /**
-     * Calculates the Universal Social Charge (USC) based on the base pay, using tiered rates.
+     * Gets the employee's rank at the time of payment.
      *
-     * @return The calculated USC deduction.
+     * @return The rank on the payslip.
      */
-    public double calcUSC() {
-        double USC = 0;
-        //on income <= 12012
-        if (basePay <= 12012) {
-            USC = basePay * 0.005;
-            // on income made between 12013 and 21295
-        } else if (basePay <= 21295) {
-            USC = (12012 * 0.005) + ((basePay - 12012) * 0.02);
-            // on income made  between 21296 and 70044
-        } else if (basePay <= 70044) {
-            USC = (12012 * 0.005) + ((21296 - 12012) * 0.02) + (basePay * 0.045);
-        } else {
-            USC = (12012 * 0.005) + ((21296 - 12012) * 0.02) + ((70044 - 21296) * 0.045) + (basePay * 0.08);
-        }
-        return USC;
+    public int getRank() {
+        return rank;
     }
 
     /**
-     * Calculates the Pay As You Earn (PAYE) deduction based on the base pay.
-     * The first €36,800 is taxed at 20%, and the remainder is taxed at 40%.
+     * Gets the title of the employee's position at the time of payment.
      *
-     * @return The calculated PAYE deduction.
+     * @return The position title on the payslip.
      */
-    public double calcPaye() {
-        double PAYE = 0;
-        //20% on income up to 36800
-        if (basePay <= 36800) {
-            PAYE = basePay * 0.2;
-        } else {
-            // remaining part off the salary = salary - 36800 that's already taxed
-            PAYE = PAYE + ((basePay - 36800) * 0.4);
-        }
-        return PAYE;
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the gross pay before deductions.
+     *
+     * @return The base pay in cents.
+     */
+    public long getBasePay() {
+        return basePay;
+    }
+
+    /**
+     * Gets the hours paid by this payslip, which is 0 for full-time employees.
+     *
+     * @return The hours worked.
+     */
+    public double getHoursWorked() {
+        return hoursWorked;
+    }
+
+    /**
+     * Gets the hourly rate paid by this payslip, which is 0 for full-time employees.
+     *
+     * @return The hourly rate in cents.
+     */
+    public long getHourlyRate() {
+        return hourlyRate;
+    }
+
+    /**
+     * Gets the PRSI deduction, a fixed percentage of the base pay.
+     *
+     * @return The PRSI deduction in cents.
+     */
+    public long calcPRSI() {
+        return deductions.getPrsi();
+    }
+
+    /**
+     * Gets the Universal Social Charge (USC) deduction, calculated from the base pay using the tax year's bands.
+     *
+     * @return The USC deduction in cents.
+     */
+    public long calcUSC() {
+        return deductions.getUsc();
+    }
 
+    /**
+     * Gets the Pay As You Earn (PAYE) deduction calculated from the base pay using the tax year's bands.
+     *
+     * @return The PAYE deduction in cents.
+     */
+    public long calcPaye() {
+        return deductions.getPaye();
     }
 
     /**
-     * Calculates the union fees, which are 1% of the base pay.
+     * Gets the union fees, a fixed percentage of the base pay.
      *
-     * @return The calculated union fees.
+     * @return The union fees in cents.
      */
-    public double calcUnionFees() {
-        return 0.1 * basePay;
+    public long calcUnionFees() {
+        return deductions.getUnionFees();
     }
 
     /**
-     * Calculates the net pay by subtracting all deductions from the base pay.
+     * Gets the net pay, which is the base pay less all deductions.
      *
-     * @return The net pay.
+     * @return The net pay in cents.
      */
-    public double calcNetPay() {
-        nettPay = basePay - (calcUSC() + calcPaye() + calcUnionFees() + calcPRSI() + employee.getHealthInsurance());
-        return nettPay;
+    public long calcNetPay() {
+        return deductions.getNetPay();
+    }
+
+    /**
+     * Gets every deduction taken from this payslip, as worked out when it was made.
+     *
+     * @return The deduction breakdown.
+     */
+    public DeductionBreakdown getDeductions() {
+        return deductions;
     }
 
     /**
@@ -118,31 +203,40 @@ public class Payslip {
      * Includes hours worked and hourly rate for part-time employees.
      */
     public void printPaySlip() {
+        printPaySlip(System.out);
+    }
+
+    /**
+     * Prints the payslip to the given stream, such as the connection of a remote session.
+     *
+     * @param out the stream the payslip is printed to
+     */
+    public void printPaySlip(PrintStream out) {
         String name = "UL Payroll System";
         int employeeID = employee.getEmployeeId();
         String employeeName = employee.getName();
 
-        System.out.println("********************PAYSLIP********************");
-        System.out.println("Company Name: " + name);
-        System.out.println("Employee ID: " + employeeID);
-        System.out.println("Employee Name: " + employeeName);
-        System.out.println("Employee Position: " + position);
-        System.out.println("Employee Rank: " + rank);
-        System.out.println("Payment Date: " + payDate.format(PayRollSystem.DATE_FORMAT));
-        System.out.println("----------------------------------------------");
+        out.println("********************PAYSLIP********************");
+        out.println("Company Name: " + name);
+        out.println("Employee ID: " + employeeID);
+        out.println("Employee Name: " + employeeName);
+        out.println("Employee Position: " + position);
+        out.println("Employee Rank: " + rank);
+        out.println("Payment Date: " + payDate.format(PayRollSystem.DATE_FORMAT));
+        out.println("----------------------------------------------");
 
         //deductions
-        double totalDeductions = (calcUSC() + calcPaye() + calcUnionFees() + calcPRSI() + employee.getHealthInsurance());
-        System.out.printf("Deductions\nHealth Insurance: €%.2f\nUSC: €%.2f\nIncome Tax: €%.2f\nPRSI: €%.2f\nUnion Fees: €%.2f\nTotal Deductions: €%.2f\n", employee.getHealthInsurance(), calcUSC(), calcPaye(), calcPRSI(), calcUnionFees(), totalDeductions);
-        System.out.println("----------------------------------------------");
+        DeductionBreakdown d = deductions;
+        out.printf("Deductions\nHealth Insurance: €%s\nUSC: €%s\nIncome Tax: €%s\nPRSI: €%s\nUnion Fees: €%s\nTotal Deductions: €%s\n", Money.format(d.getHealthInsurance()), Money.format(d.getUsc()), Money.format(d.getPaye()), Money.format(d.getPrsi()), Money.format(d.getUnionFees()), Money.format(d.getTotal()));
+        out.println("----------------------------------------------");
 
         //summary
-        System.out.println("Summary");
+        out.println("Summary");
         // checks if the employee is an instance of the Part time employee class
         if (employee instanceof PartTimeEmployee) {
-            System.out.printf("Hours worked : %.2f\nPay Rate : €%.2f\n", hoursWorked, hourlyRate);
+            out.printf("Hours worked : %.2f\nPay Rate : €%s\n", hoursWorked, Money.format(hourlyRate));
         }
-        System.out.printf("Gross Pay : €%.2f\nNet Pay : €%.2f\nPay method : Bank Transfer\n", basePay, calcNetPay());
-        System.out.println("***********************************************");
+        out.printf("Gross Pay : €%s\nNet Pay : €%s\nPay method : Bank Transfer\n", Money.format(basePay), Money.format(d.getNetPay()));
+        out.println("***********************************************");
     }
 }
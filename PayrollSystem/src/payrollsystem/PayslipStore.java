@@ -0,0 +1,476 @@
+package payrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A disk-backed store of every payslip generated by the payroll system.
+ * Payslips are kept as fixed-width binary records appended to a single file, and only a small
+ * (employee ID, pay date) index is held in memory, so an employee's recent payslips can be read
+ * straight from disk without keeping every employee's full history on the heap.
+ * The store is the only record of which months each employee has been paid for: alongside their pay dates,
+ * each employee's index keeps a bitset of the epoch months they have been paid in, so a pay run can tell whether
+ * an employee has been paid for a month in constant time however long their history is.
+ *
+ * <p>The employees' indexes are kept in an open addressing hash table over a primitive int array of employee IDs,
+ * as in {@link EmployeeDirectory}, so finding an employee's index neither boxes the ID nor allocates.</p>
+ *
+ * <p>Each record is {@value #RECORD_SIZE} bytes: employee ID, pay date as an epoch day, rank and
+ * position ordinal as ints, followed by base pay in cents as a long, hours worked as a double and hourly
+ * rate in cents as a long. Version 1 files, which held the three amounts as doubles of euros, are still
+ * read and appended to in their own format.</p>
+ *
+ * <p>Records are read through read-only mappings of the file, each covering up to {@value #SEGMENT_RECORDS}
+ * records, so reading a payslip is a copy out of the page cache rather than a read call. The mapping of the
+ * last segment is renewed when a read reaches records appended since it was made.</p>
+ *
+ * <p>The payslips most recently read back are kept in a small least-recently-used cache, so viewing the same
+ * payslips again does not work out their deductions again.</p>
+ */
+public class PayslipStore implements AutoCloseable {
+    private static final int MAGIC = 0x50534C50; // "PSLP"
+    private static final int VERSION = 2;
+    private static final int EURO_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 40;
+    private static final int SEGMENT_RECORDS = 1 << 20;
+    private static final int CACHED_PAYSLIPS = 256;
+    private static final int MIN_CAPACITY = 16;
+
+    private final FileChannel channel;
+    private final PositionCatalog positionCatalog;
+    private final TaxRuleCatalog taxRuleCatalog;
+    private int[] indexedIds = new int[MIN_CAPACITY];
+    private EmployeeIndex[] indexes = new EmployeeIndex[MIN_CAPACITY];
+    private int indexedEmployees;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final LinkedHashMap<Long, Payslip> recentlyRead = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Payslip> eldest) {
+            return size() > CACHED_PAYSLIPS;
+        }
+    };
+    private long mappedRecords;
+    private long recordCount;
+    private int version = VERSION;
+
+    /**
+     * Opens the payslip store in the given file, creating it if it does not exist, and builds the index
+     * by scanning the stored records.
+     *
+     * @param file            the path of the payslip data file
+     * @param positionCatalog the catalog used to turn position titles into ordinals and back
+     * @param taxRuleCatalog  the tax rules used to work out the deductions of payslips read back
+     * @throws IOException If the file cannot be read or is not a payslip store.
+     */
+    public PayslipStore(Path file, PositionCatalog positionCatalog, TaxRuleCatalog taxRuleCatalog) throws IOException {
+        this.positionCatalog = positionCatalog;
+        this.taxRuleCatalog = taxRuleCatalog;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            channel.write(header, 0);
+        } else {
+            readHeader();
+            buildIndex();
+        }
+    }
+
+    /**
+     * Checks whether the store holds any payslips.
+     *
+     * @return true if no payslips have been stored
+     */
+    public synchronized boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    /**
+     * Stores a payslip, unless the employee already has a stored payslip for the same month.
+     *
+     * @param p the payslip to be stored
+     * @return true if the payslip was stored, false if it was a duplicate
+     * @throws PayRollException If the payslip could not be written.
+     */
+    public synchronized boolean append(Payslip p) {
+        return appendAll(new Payslip[]{p}) == 1;
+    }
+
+    /**
+     * Stores a batch of payslips with a single write, skipping nulls and duplicates.
+     * A payslip skipped as a duplicate of one already stored for the same month is set to null in the array,
+     * so the array is left holding only the payslips that were stored.
+     *
+     * @param payslips the payslips to be stored, such as the results of a payroll run
+     * @return the number of payslips stored
+     * @throws PayRollException If the payslips could not be written.
+     */
+    public synchronized int appendAll(Payslip[] payslips) {
+        ByteBuffer buffer = ByteBuffer.allocate(payslips.length * RECORD_SIZE);
+        long firstRecord = recordCount;
+        int stored = 0;
+        for (int i = 0; i < payslips.length; i++) {
+            Payslip p = payslips[i];
+            if (p == null) continue;
+            int employeeId = p.getEmployee().getEmployeeId();
+            int payDay = (int) p.getPayDate().toEpochDay();
+            EmployeeIndex entries = indexFor(employeeId);
+            if (!entries.add(payDay, ClaimDeadlines.epochMonth(p.getPayDate()), firstRecord + stored)) {
+                payslips[i] = null;
+                continue;
+            }
+            buffer.putInt(employeeId)
+                    .putInt(payDay)
+                    .putInt(p.getRank())
+                    .putInt(positionCatalog.getOrdinalOfName(p.getPosition()));
+            if (version == EURO_VERSION) {
+                buffer.putDouble(Money.toEuros(p.getBasePay()))
+                        .putDouble(p.getHoursWorked())
+                        .putDouble(Money.toEuros(p.getHourlyRate()));
+            } else {
+                buffer.putLong(p.getBasePay())
+                        .putDouble(p.getHoursWorked())
+                        .putLong(p.getHourlyRate());
+            }
+            stored++;
+        }
+        buffer.flip();
+        try {
+            long offset = recordOffset(firstRecord);
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+        } catch (IOException e) {
+            throw new PayRollException("Error writing to the payslip store: " + e.getMessage());
+        }
+        recordCount += stored;
+        return stored;
+    }
+
+    /**
+     * Returns the number of payslips stored for an employee.
+     *
+     * @param employeeId the ID number of the employee
+     * @return the number of stored payslips
+     */
+    public synchronized int count(int employeeId) {
+        EmployeeIndex entries = indexes[findSlot(employeeId)];
+        return entries == null ? 0 : entries.size;
+    }
+
+    /**
+     * Checks whether an employee has a stored payslip for a month, with a single bit test.
+     * The store's lock is not taken, so every worker of a payroll run can check its employees at once;
+     * the caller must make sure no payslips are stored at the same time, as the payroll system does by
+     * holding its write lock for the whole run.
+     *
+     * @param employeeId the ID number of the employee
+     * @param epochMonth the month, as numbered by {@link ClaimDeadlines#epochMonth}
+     * @return true if the employee has been paid for that month
+     */
+    public boolean isPaid(int employeeId, int epochMonth) {
+        EmployeeIndex entries = indexes[findSlot(employeeId)];
+        return entries != null && entries.isPaid(epochMonth);
+    }
+
+    /**
+     * Gets the pay date of an employee's most recent stored payslip.
+     *
+     * @param employeeId the ID number of the employee
+     * @return the latest pay date, or null if the employee has no stored payslips
+     */
+    public synchronized LocalDate getLatestPayDate(int employeeId) {
+        EmployeeIndex entries = indexes[findSlot(employeeId)];
+        return entries == null || entries.size == 0 ? null : LocalDate.ofEpochDay(entries.payDays[entries.size - 1]);
+    }
+
+    /**
+     * Reads an employee's most recent payslips from disk, newest first.
+     * Payslips read recently are taken from the cache instead.
+     *
+     * @param e the employee whose payslips are read
+     * @param n the largest number of payslips to read
+     * @return up to n of the employee's payslips, ordered from the most recent pay date
+     * @throws PayRollException If the payslips could not be read.
+     */
+    public synchronized List<Payslip> readRecent(Employee e, int n) {
+        EmployeeIndex entries = indexes[findSlot(e.getEmployeeId())];
+        ArrayList<Payslip> payslips = new ArrayList<>();
+        if (entries == null) return payslips;
+        try {
+            mapRecords(recordCount);
+        } catch (IOException ex) {
+            throw new PayRollException("Error reading the payslip store: " + ex.getMessage());
+        }
+        for (int i = entries.size - 1; i >= 0 && payslips.size() < n; i--) {
+            long record = entries.records[i];
+            Payslip p = recentlyRead.get(record);
+            if (p == null || p.getEmployee() != e) {
+                MappedByteBuffer segment = segments.get((int) (record / SEGMENT_RECORDS));
+                p = readPayslip(e, segment.slice((int) (record % SEGMENT_RECORDS) * RECORD_SIZE, RECORD_SIZE));
+                recentlyRead.put(record, p);
+            }
+            payslips.add(p);
+        }
+        return payslips;
+    }
+
+    /**
+     * Flushes the store to disk and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing the payslip store.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rebuilds a payslip from a single record.
+     *
+     * @param e      the employee the payslip belongs to
+     * @param record a buffer positioned at the start of the record
+     * @return the payslip held in the record
+     */
+    private Payslip readPayslip(Employee e, ByteBuffer record) {
+        record.getInt(); // employee ID, already known
+        LocalDate payDate = LocalDate.ofEpochDay(record.getInt());
+        int rank = record.getInt();
+        String position = positionCatalog.getPositionOfOrdinal(record.getInt()).getTitle();
+        if (version == EURO_VERSION) {
+            return new Payslip(e, payDate, rank, position, Money.ofEuros(record.getDouble()), record.getDouble(),
+                    Money.ofEuros(record.getDouble()), taxRuleCatalog);
+        }
+        return new Payslip(e, payDate, rank, position, record.getLong(), record.getDouble(), record.getLong(),
+                taxRuleCatalog);
+    }
+
+    /**
+     * Checks that the file starts with a payslip store header of a supported version.
+     *
+     * @throws IOException If the header is missing or unsupported.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a payslip store");
+        }
+        version = header.getInt();
+        if (version != VERSION && version != EURO_VERSION) {
+            throw new IOException("Unsupported payslip store version: " + version);
+        }
+    }
+
+    /**
+     * Scans every stored record, reading only the employee ID and pay date, to build the in-memory index.
+     * A partly written record at the end of the file is ignored and later overwritten.
+     *
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void buildIndex() throws IOException {
+        long records = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        mapRecords(records);
+        for (int s = 0; s < segments.size(); s++) {
+            MappedByteBuffer segment = segments.get(s);
+            long first = (long) s * SEGMENT_RECORDS;
+            int inSegment = segment.capacity() / RECORD_SIZE;
+            for (int i = 0; i < inSegment; i++) {
+                int base = i * RECORD_SIZE;
+                int employeeId = segment.getInt(base);
+                int payDay = segment.getInt(base + 4);
+                int month = ClaimDeadlines.epochMonth(LocalDate.ofEpochDay(payDay));
+                indexFor(employeeId).add(payDay, month, first + i);
+            }
+        }
+        recordCount = records;
+    }
+
+    /**
+     * Maps the file up to the given number of records, renewing the mapping of a last segment
+     * that has been appended to since it was mapped.
+     *
+     * @param records the number of records that must be mapped
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void mapRecords(long records) throws IOException {
+        if (records <= mappedRecords) return;
+        int s = (int) (mappedRecords / SEGMENT_RECORDS);
+        if (s < segments.size()) {
+            segments.remove(s);// the last segment is only partly mapped
+        }
+        for (; (long) s * SEGMENT_RECORDS < records; s++) {
+            long first = (long) s * SEGMENT_RECORDS;
+            long length = Math.min(SEGMENT_RECORDS, records - first) * RECORD_SIZE;
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, recordOffset(first), length));
+        }
+        mappedRecords = records;
+    }
+
+    /**
+     * Returns the byte offset of a record in the file.
+     *
+     * @param record the record number, starting at 0
+     * @return the position of the record in the file
+     */
+    private static long recordOffset(long record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    /**
+     * Returns an employee's index, adding an empty one if the employee has no stored payslips yet.
+     *
+     * @param employeeId the ID number of the employee
+     * @return the employee's index
+     */
+    private EmployeeIndex indexFor(int employeeId) {
+        int slot = findSlot(employeeId);
+        EmployeeIndex entries = indexes[slot];
+        if (entries != null) return entries;
+        if ((indexedEmployees + 1) * 2 > indexedIds.length) {
+            resize(indexedIds.length << 1);
+            slot = findSlot(employeeId);
+        }
+        entries = new EmployeeIndex();
+        indexedIds[slot] = employeeId;
+        indexes[slot] = entries;
+        indexedEmployees++;
+        return entries;
+    }
+
+    /**
+     * Finds the slot holding an employee's index, or the empty slot where it would be inserted.
+     *
+     * @param employeeId the ID number to look for
+     * @return the index of the slot in the table
+     */
+    private int findSlot(int employeeId) {
+        int mask = indexedIds.length - 1;
+        int slot = hash(employeeId) & mask;
+        while (indexes[slot] != null && indexedIds[slot] != employeeId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Rebuilds the table of indexes with a new capacity, reinserting every employee's index.
+     *
+     * @param capacity the new table capacity, a power of two
+     */
+    private void resize(int capacity) {
+        int[] oldIds = indexedIds;
+        EmployeeIndex[] oldIndexes = indexes;
+        indexedIds = new int[capacity];
+        indexes = new EmployeeIndex[capacity];
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIndexes[i] != null) {
+                int slot = findSlot(oldIds[i]);
+                indexedIds[slot] = oldIds[i];
+                indexes[slot] = oldIndexes[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of an ID so that sequential IDs do not cluster in the table.
+     *
+     * @param id the ID number to hash
+     * @return the mixed hash of the ID
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The stored payslips of a single employee, as pay dates and record numbers kept sorted by pay date,
+     * and a bitset of the months paid with bit 0 standing for the first month it covers.
+     */
+    private static class EmployeeIndex {
+        private static final long[] NO_MONTHS = new long[0];
+
+        private int[] payDays = new int[4];
+        private long[] records = new long[4];
+        private int size;
+        private long[] paidMonths = NO_MONTHS;
+        private int firstMonth;
+
+        /**
+         * Checks whether a payslip for a month is stored.
+         *
+         * @param epochMonth the month, as numbered by {@link ClaimDeadlines#epochMonth}
+         * @return true if a payslip for that month is already stored
+         */
+        boolean isPaid(int epochMonth) {
+            int bit = epochMonth - firstMonth;
+            return bit >= 0 && bit >>> 6 < paidMonths.length && (paidMonths[bit >>> 6] & 1L << bit) != 0;
+        }
+
+        /**
+         * Adds a stored payslip, keeping the entries in pay date order, unless a payslip for its month is
+         * already stored. Payslips are normally stored in date order, so this is usually a plain append.
+         *
+         * @param payDay     the pay date as an epoch day
+         * @param epochMonth the month of the pay date
+         * @param record     the record number of the payslip in the file
+         * @return true if the payslip was added, false if its month was already paid
+         */
+        boolean add(int payDay, int epochMonth, long record) {
+            if (isPaid(epochMonth)) return false;
+            markPaid(epochMonth);
+            if (size == payDays.length) {
+                payDays = Arrays.copyOf(payDays, size * 2);
+                records = Arrays.copyOf(records, size * 2);
+            }
+            int at = size;
+            if (size > 0 && payDays[size - 1] > payDay) {
+                at = -Arrays.binarySearch(payDays, 0, size, payDay) - 1;
+                System.arraycopy(payDays, at, payDays, at + 1, size - at);
+                System.arraycopy(records, at, records, at + 1, size - at);
+            }
+            payDays[at] = payDay;
+            records[at] = record;
+            size++;
+            return true;
+        }
+
+        /**
+         * Sets a month's bit, widening the bitset by whole words at whichever end the month falls beyond.
+         *
+         * @param epochMonth the month paid
+         */
+        private void markPaid(int epochMonth) {
+            if (paidMonths.length == 0) {
+                paidMonths = new long[1];
+                firstMonth = epochMonth;
+            } else if (epochMonth < firstMonth) {
+                int words = (firstMonth - epochMonth + 63) >>> 6;
+                long[] widened = new long[paidMonths.length + words];
+                System.arraycopy(paidMonths, 0, widened, words, paidMonths.length);
+                paidMonths = widened;
+                firstMonth -= words << 6;
+            }
+            int bit = epochMonth - firstMonth;
+            if (bit >>> 6 >= paidMonths.length) {
+                paidMonths = Arrays.copyOf(paidMonths, Math.max(paidMonths.length * 2, (bit >>> 6) + 1));
+            }
+            paidMonths[bit >>> 6] |= 1L << bit;
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package payrollsystem;
 
-import java.util.ArrayList;
-
 /**
  * Represents a position within the university payroll system
  * Has a position title, a category, and a payscale
+ * The pay scale is held in cents as a primitive array that is never handed out, so looking up a salary does not box or allocate.
  */
 public class Position {
     private final String title;
-    private final ArrayList<Double> payScale;
+    private final long[] payScale;
     private String category;
 
     /**
@@ -21,11 +20,23 @@ public class Position {
         setCategory(category);
         String[] payStr = line.split(",");
         this.title = payStr[0];
-        ArrayList<Double> payscaleArrayList = new ArrayList<>(1);
+        payScale = new long[payStr.length - 1];
         for (int i = 1; i < payStr.length; i++) {
-            payscaleArrayList.add(Double.parseDouble(payStr[i]));
+            payScale[i - 1] = Money.parse(payStr[i]);
         }
-        payScale = payscaleArrayList;
+    }
+
+    /**
+     * Constructs a Position from details that are already parsed, such as those read from a payroll snapshot.
+     *
+     * @param category the category of the position, already in proper casing
+     * @param title    the title of the position
+     * @param payScale the annual salary of each rank in cents, starting with rank 1
+     */
+    Position(String category, String title, long[] payScale) {
+        this.category = category;
+        this.title = title;
+        this.payScale = payScale.clone();
     }
 
     /**
@@ -50,12 +61,44 @@ public class Position {
     }
 
     /**
-     * Returns the pay scale for this position.
+     * Returns a copy of the pay scale for this position.
+     *
+     * @return the annual salary of each rank in cents, starting with rank 1
+     */
+    public long[] getPayScale() {
+        return payScale.clone();
+    }
+
+    /**
+     * Returns the annual salary of a rank on this position's pay scale.
+     *
+     * @param rank the rank, starting at 1
+     * @return the annual salary of that rank in cents
+     * @throws IllegalArgumentException If the rank is not on the pay scale.
+     */
+    public long getSalary(int rank) {
+        if (rank < 1 || rank > payScale.length) {
+            throw new IllegalArgumentException("Rank out of bounds for the salary scale: " + rank);
+        }
+        return payScale[rank - 1];
+    }
+
+    /**
+     * Returns the number of points on this position's pay scale.
+     *
+     * @return the length of the pay scale
+     */
+    public int getScaleLength() {
+        return payScale.length;
+    }
+
+    /**
+     * Returns the highest rank of this position. Ranks start at 1, so this is the same as the scale length.
      *
-     * @return the payscale as an ArrayList of Doubles.
+     * @return the top rank
      */
-    public ArrayList<Double> getPayScale() {
-        return this.payScale;
+    public int getTopRank() {
+        return payScale.length;
     }
 
     /**
@@ -83,12 +126,12 @@ public class Position {
      */
     public String toString() {
         StringBuilder arrayOfPay = new StringBuilder("Pay Grades: ");
-        for (double p : payScale) {
-            String pay = String.format("%.2f", p);
+        for (long p : payScale) {
+            String pay = Money.format(p);
             arrayOfPay.append("€" + pay + ", ");
         }
         arrayOfPay.delete(arrayOfPay.length() - 2, arrayOfPay.length());
         String arrayOfPayStr = arrayOfPay.toString();
-        return String.format("Category: %s Title: %s%nMax Rank: %d%n%s", this.category, this.title, payScale.size(), arrayOfPayStr);
+        return String.format("Category: %s Title: %s%nMax Rank: %d%n%s", this.category, this.title, payScale.length, arrayOfPayStr);
     }
 }
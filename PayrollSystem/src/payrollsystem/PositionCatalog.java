@@ -0,0 +1,174 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable catalog of all positions in the university, built once from the PositionDetails.csv file.
+ * Positions are indexed by their normalised title and grouped by category so that lookups do not scan the list.
+ */
+public class PositionCatalog {
+    private final List<Position> positions;
+    private final Map<String, Position> positionsByTitle;
+    private final Map<String, List<Position>> positionsByCategory;
+    private final Map<String, Integer> ordinalsByTitle;
+
+    /**
+     * Constructs a catalog of the given positions.
+     * If two positions share a title, the first one takes precedence in lookups.
+     *
+     * @param positionList the positions to be held in the catalog
+     */
+    public PositionCatalog(List<Position> positionList) {
+        HashMap<String, Position> byTitle = new HashMap<>(positionList.size() * 2);
+        HashMap<String, Integer> ordinals = new HashMap<>(positionList.size() * 2);
+        LinkedHashMap<String, List<Position>> byCategory = new LinkedHashMap<>();
+        for (int i = 0; i < positionList.size(); i++) {
+            Position p = positionList.get(i);
+            byTitle.putIfAbsent(normalise(p.getTitle()), p);
+            ordinals.putIfAbsent(normalise(p.getTitle()), i);
+            byCategory.computeIfAbsent(p.getCategory(), c -> new ArrayList<>()).add(p);
+        }
+        for (Map.Entry<String, List<Position>> entry : byCategory.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        positions = List.copyOf(positionList);
+        positionsByTitle = byTitle;
+        ordinalsByTitle = ordinals;
+        positionsByCategory = Collections.unmodifiableMap(byCategory);
+    }
+
+    /**
+     * Reads a position file made up of blocks separated by blank lines, where the first line of each block
+     * is the category and every following line is a comma separated title and pay scale.
+     *
+     * @param file the path to the position file
+     * @return a catalog containing every position in the file
+     * @throws IOException If the file cannot be read.
+     */
+    public static PositionCatalog load(Path file) throws IOException {
+        ArrayList<Position> positionList = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String category = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    category = null;
+                } else if (category == null) {
+                    category = line;
+                } else {
+                    positionList.add(new Position(category, line));
+                }
+            }
+        }
+        return new PositionCatalog(positionList);
+    }
+
+    /**
+     * Returns the position object of the given title, ignoring case and surrounding whitespace.
+     *
+     * @param name the name of the position to be found
+     * @return The position with the given title
+     * @throws PayRollException If no position with the given name exists.
+     */
+    public Position getPositionOfName(String name) {
+        Position p = name == null ? null : positionsByTitle.get(normalise(name));
+        if (p == null) throw new PayRollException(name + ", no such position exists");
+        return p;
+    }
+
+    /**
+     * Checks whether a position with the given title exists, ignoring case and surrounding whitespace.
+     *
+     * @param name the name of the position
+     * @return true if the position exists, false otherwise
+     */
+    public boolean containsPosition(String name) {
+        return name != null && positionsByTitle.containsKey(normalise(name));
+    }
+
+    /**
+     * Returns the ordinal of the position with the given title, which is its index in the position file.
+     * Ordinals are used in place of titles in fixed-width records.
+     *
+     * @param name the name of the position
+     * @return the ordinal of the position
+     * @throws PayRollException If no position with the given name exists.
+     */
+    public int getOrdinalOfName(String name) {
+        Integer ordinal = name == null ? null : ordinalsByTitle.get(normalise(name));
+        if (ordinal == null) throw new PayRollException(name + ", no such position exists");
+        return ordinal;
+    }
+
+    /**
+     * Returns the position with the given ordinal.
+     *
+     * @param ordinal the index of the position in the position file
+     * @return the position with that ordinal
+     * @throws PayRollException If the ordinal is out of range.
+     */
+    public Position getPositionOfOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= positions.size()) {
+            throw new PayRollException("No position with ordinal " + ordinal);
+        }
+        return positions.get(ordinal);
+    }
+
+    /**
+     * Returns all positions belonging to the given category.
+     *
+     * @param category the category name, as returned by {@link Position#getCategory()}
+     * @return an unmodifiable list of positions in the category, empty if the category does not exist
+     */
+    public List<Position> getPositionsInCategory(String category) {
+        return positionsByCategory.getOrDefault(category, List.of());
+    }
+
+    /**
+     * Returns the names of all categories in the order they appear in the position file.
+     *
+     * @return an unmodifiable collection of category names
+     */
+    public List<String> getCategories() {
+        return List.copyOf(positionsByCategory.keySet());
+    }
+
+    /**
+     * Returns every position in the catalog in the order they appear in the position file.
+     *
+     * @return an unmodifiable list of positions
+     */
+    public List<Position> getPositions() {
+        return positions;
+    }
+
+    /**
+     * Returns the number of positions in the catalog.
+     *
+     * @return the number of positions
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Normalises a position title into the key used by the title index.
+     *
+     * @param title the title to be normalised
+     * @return the trimmed, lower case title
+     */
+    private static String normalise(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,90 @@
+package payrollsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a bulk promotion from a file, counting the employees promoted and holding a record of every row
+ * that was rejected.
+ */
+public class PromotionReport {
+    private final String fileName;
+    private final ArrayList<EmployeeLoadReport.RowError> errors = new ArrayList<>();
+    private int promoted;
+
+    /**
+     * Constructs an empty report for the given file.
+     *
+     * @param fileName the name of the file of promotions
+     */
+    public PromotionReport(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Records the number of employees promoted.
+     *
+     * @param promoted the number of promotions made
+     */
+    void setPromoted(int promoted) {
+        this.promoted = promoted;
+    }
+
+    /**
+     * Records a row that could not be applied.
+     *
+     * @param lineNumber the line number of the row in the file, starting at 1
+     * @param line       the contents of the row
+     * @param message    the reason the row was rejected
+     */
+    void addError(int lineNumber, String line, String message) {
+        errors.add(new EmployeeLoadReport.RowError(lineNumber, line, message));
+    }
+
+    /**
+     * Gets the number of employees promoted.
+     *
+     * @return the number of promotions made
+     */
+    public int getPromoted() {
+        return promoted;
+    }
+
+    /**
+     * Gets the rows that were rejected, in file order.
+     *
+     * @return an unmodifiable list of the rejected rows
+     */
+    public List<EmployeeLoadReport.RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Makes a summary of the promotions, listing at most the given number of rejected rows.
+     *
+     * @param maxErrors the largest number of rejected rows to list
+     * @return a string summarising the promotions
+     */
+    public String summary(int maxErrors) {
+        StringBuilder sb = new StringBuilder(String.format("%s: %d employees promoted, %d rows rejected",
+                fileName, promoted, errors.size()));
+        for (int i = 0; i < errors.size() && i < maxErrors; i++) {
+            sb.append(System.lineSeparator()).append("  ").append(errors.get(i));
+        }
+        if (errors.size() > maxErrors) {
+            sb.append(System.lineSeparator()).append("  ...");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Makes a summary of the promotions, listing every rejected row.
+     *
+     * @return a string summarising the promotions
+     */
+    @Override
+    public String toString() {
+        return summary(errors.size());
+    }
+}
@@ -0,0 +1,184 @@
+package payrollsystem;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the command line menu to many users at once over a local socket.
+ * Every connection gets its own Menu running on its own virtual thread, so employee, admin and HR sessions
+ * can all be open together against the same payroll system. Connect with a plain text client such as
+ * {@code nc localhost 4013}.
+ */
+public class SessionServer implements AutoCloseable {
+    private final PayRollSystem payroll;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionsStarted = new AtomicInteger();
+    private Thread acceptor;
+
+    /**
+     * Constructs a SessionServer listening on the loopback address.
+     *
+     * @param payroll the payroll system shared by every session
+     * @param port    the port to listen on, or 0 to pick a free port
+     * @throws IOException If the port cannot be opened.
+     */
+    public SessionServer(PayRollSystem payroll, int port) throws IOException {
+        this.payroll = payroll;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     *
+     * @return this server
+     */
+    public synchronized SessionServer start() {
+        if (acceptor == null) {
+            acceptor = Thread.ofPlatform().name("session-acceptor").daemon(true).start(this::acceptConnections);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of sessions currently connected.
+     *
+     * @return the number of open connections
+     */
+    public int getActiveSessions() {
+        return connections.size();
+    }
+
+    /**
+     * Returns the number of sessions started since the server was created.
+     *
+     * @return the number of connections accepted
+     */
+    public int getSessionsStarted() {
+        return sessionsStarted.get();
+    }
+
+    /**
+     * Stops accepting connections, disconnects every open session and waits for the sessions to finish.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            System.err.println("Error closing the session server.");
+            e.printStackTrace();
+        }
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        sessions.close();
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, handing each to a new virtual thread.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                sessionsStarted.incrementAndGet();
+                sessions.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // the server socket was closed
+            } catch (IOException e) {
+                System.err.println("Error accepting a session.");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Runs a menu over a single connection until the user quits or disconnects.
+     *
+     * @param socket the connection of the session
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            Menu menu = new Menu(new FlushingInputStream(socket.getInputStream(), out), out);
+            menu.run(payroll);
+            out.flush();
+        } catch (NoSuchElementException e) {
+            // the client disconnected part way through a session
+        } catch (IOException e) {
+            System.err.println("Error in session with " + socket.getRemoteSocketAddress());
+            e.printStackTrace();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Closes a connection, ignoring any error.
+     *
+     * @param socket the connection to be closed
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    /**
+     * An input stream that flushes the session's output before waiting for input,
+     * so prompts printed without a line break reach the user before the menu blocks.
+     */
+    private static class FlushingInputStream extends FilterInputStream {
+        private final PrintStream out;
+
+        /**
+         * Constructs a FlushingInputStream.
+         *
+         * @param in  the stream of the connection's input
+         * @param out the stream flushed before every read
+         */
+        FlushingInputStream(InputStream in, PrintStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            out.flush();
+            return super.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A university's payroll split into shards, each an independent payroll system with its own data directory
+ * and its own worker thread. Shards are loaded and paid in parallel, so a slow shard or a large employee file
+ * only holds up its own part of the payroll, and the totals of every shard are merged once all have finished.
+ * Each shard's pay runs are made on a pool of its own, with the processors shared out evenly between the shards,
+ * so the shards neither queue up behind one another in the common pool nor start more threads than processors.
+ *
+ * <p>Employees keep the IDs they had in the unsharded payroll, so their logins do not change: each shard's
+ * employees are written as employee journal records under those IDs, and their passwords with the IDs, rather
+ * than as employee details rows the shard would number again. An employee logs in to the shard that holds them.
+ * Employees added later are numbered by their own shard, on from the number of employees in the whole workforce.</p>
+ */
+public final class ShardedPayroll implements AutoCloseable {
+    private final LinkedHashMap<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * The ways a workforce can be split into shards.
+     */
+    public enum Partitioning {
+        /**
+         * One shard per position category, such as Academic, Administrative and Human Resources.
+         */
+        CATEGORY,
+        /**
+         * A fixed number of shards, chosen by a hash of each employee's ID in the unsharded payroll.
+         */
+        ID_HASH
+    }
+
+    /**
+     * Opens a payroll system in each of the given shard directories, loading them all in parallel.
+     *
+     * @param shardDirectories the data directory of each shard, keyed by shard name
+     * @throws PayRollException If a shard cannot be loaded.
+     */
+    public ShardedPayroll(Map<String, Path> shardDirectories) {
+        this(shardDirectories, PayRollSystem.Storage.OBJECTS);
+    }
+
+    /**
+     * Opens a payroll system in each of the given shard directories, loading them all in parallel.
+     *
+     * @param shardDirectories the data directory of each shard, keyed by shard name
+     * @param storage          how each shard holds its employees
+     * @throws PayRollException If a shard cannot be loaded.
+     */
+    public ShardedPayroll(Map<String, Path> shardDirectories, PayRollSystem.Storage storage) {
+        LinkedHashMap<String, CompletableFuture<PayRollSystem>> loading = new LinkedHashMap<>();
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, shardDirectories.size()));
+        for (Map.Entry<String, Path> entry : shardDirectories.entrySet()) {
+            String name = entry.getKey();
+            ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "payroll-shard-" + name);
+                t.setDaemon(true);
+                return t;
+            });
+            Shard shard = new Shard(name, worker, new ForkJoinPool(parallelism));
+            shards.put(name, shard);
+            loading.put(name, CompletableFuture.supplyAsync(() -> new PayRollSystem(entry.getValue(), storage,
+                    new PayrollRunEngine(shard.pool)), worker));
+        }
+        PayRollException failure = null;
+        for (Map.Entry<String, CompletableFuture<PayRollSystem>> entry : loading.entrySet()) {
+            try {
+                shards.get(entry.getKey()).payroll = entry.getValue().join();
+            } catch (CompletionException e) {
+                failure = new PayRollException("Error loading shard " + entry.getKey() + ": " + e.getCause());
+            }
+        }
+        if (failure != null) {
+            close();
+            throw failure;
+        }
+    }
+
+    /**
+     * Splits the employee and password files in a data directory into one data directory per shard.
+     * Each shard directory gets its own copy of the position and tax rule files, its employees as records of
+     * an employee journal under the IDs they have in the unsharded payroll, behind a snapshot holding only the
+     * number the next new employee's ID is made from, and their passwords as "employeeId,password" rows.
+     * Rows naming no known position are put in the first shard, so they are still reported when that shard is loaded.
+     *
+     * @param sourceDirectory the data directory of the unsharded payroll
+     * @param shardRoot       the directory the shard directories are created in
+     * @param partitioning    how employees are assigned to shards
+     * @param shardCount      the number of shards when partitioning by ID hash, ignored for categories
+     * @return the data directory of each shard, keyed by shard name
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static LinkedHashMap<String, Path> split(Path sourceDirectory, Path shardRoot, Partitioning partitioning,
+                                                    int shardCount) throws IOException {
+        if (partitioning == Partitioning.ID_HASH && shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + shardCount);
+        }
+        PositionCatalog catalog = PositionCatalog.load(sourceDirectory.resolve("PositionDetails.csv"));
+        List<String> names = new ArrayList<>();
+        if (partitioning == Partitioning.CATEGORY) {
+            for (String category : catalog.getCategories()) {
+                names.add(category.replaceAll("[^A-Za-z0-9]+", "-"));
+            }
+        } else {
+            for (int i = 0; i < shardCount; i++) {
+                names.add("shard-" + i);
+            }
+        }
+        LinkedHashMap<String, Path> directories = new LinkedHashMap<>();
+        List<BufferedWriter> employeeWriters = new ArrayList<>();
+        List<BufferedWriter> passwordWriters = new ArrayList<>();
+        int numberOfEmployees;
+        try {
+            for (String name : names) {
+                Path directory = Files.createDirectories(shardRoot.resolve(name));
+                directories.put(name, directory);
+                for (String file : new String[]{"PositionDetails.csv", "TaxRules.csv"}) {
+                    if (Files.exists(sourceDirectory.resolve(file))) {
+                        Files.copy(sourceDirectory.resolve(file), directory.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                employeeWriters.add(Files.newBufferedWriter(directory.resolve("CurrentEmployeeDetails.journal"),
+                        StandardCharsets.UTF_8));
+                passwordWriters.add(Files.newBufferedWriter(directory.resolve("PasswordFile.csv"), StandardCharsets.UTF_8));
+            }
+            numberOfEmployees = splitRows(sourceDirectory, catalog, partitioning, names, employeeWriters, passwordWriters);
+        } finally {
+            for (BufferedWriter w : employeeWriters) w.close();
+            for (BufferedWriter w : passwordWriters) w.close();
+        }
+        // written last, so the snapshot is never older than the journal behind it
+        for (Path directory : directories.values()) {
+            Files.writeString(directory.resolve("CurrentEmployeeDetails.csv"),
+                    EmployeeJournal.snapshotHeader(numberOfEmployees) + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        return directories;
+    }
+
+    /**
+     * Copies every employee row, under the ID the unsharded payroll gives it, and the password on the matching line
+     * of the password file, to its shard. A row naming no known position is copied without an ID.
+     *
+     * @param sourceDirectory the data directory of the unsharded payroll
+     * @param catalog         the positions used to find each row's category and ID
+     * @param partitioning    how employees are assigned to shards
+     * @param names           the shard names, in the order of the writers
+     * @param employeeWriters the employee journal of each shard
+     * @param passwordWriters the password file of each shard
+     * @return the number of employees in the unsharded payroll
+     * @throws IOException If a file cannot be read or written.
+     */
+    private static int splitRows(Path sourceDirectory, PositionCatalog catalog, Partitioning partitioning,
+                                  List<String> names, List<BufferedWriter> employeeWriters,
+                                  List<BufferedWriter> passwordWriters) throws IOException {
+        List<String> categories = catalog.getCategories();
+        Path passwordFile = sourceDirectory.resolve("PasswordFile.csv");
+        try (BufferedReader employees = Files.newBufferedReader(sourceDirectory.resolve("EmployeeDetails.csv"), StandardCharsets.UTF_8);
+             BufferedReader passwords = Files.exists(passwordFile)
+                     ? Files.newBufferedReader(passwordFile, StandardCharsets.UTF_8) : null) {
+            String line;
+            int numberOfEmployees = 0;
+            while ((line = employees.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] fields = CsvTokenizer.tokenize(line);
+                int shard = 0;
+                String employeeId = "";
+                String password = null;
+                if (fields.length >= 3 && catalog.containsPosition(fields[2])) {
+                    Position position = catalog.getPositionOfName(fields[2]);
+                    int id = Employee.idOf(position, numberOfEmployees);
+                    if (partitioning == Partitioning.CATEGORY) {
+                        shard = categories.indexOf(position.getCategory());
+                    } else {
+                        shard = ((id * 0x9E3779B9) >>> 16) % names.size();
+                    }
+                    employeeId = Integer.toString(id);
+                    numberOfEmployees++;
+                    password = passwords == null ? null : nextPassword(passwords);
+                }
+                employeeWriters.get(shard).write(EmployeeJournal.addRecord(employeeId, line));
+                employeeWriters.get(shard).newLine();
+                if (password != null) {
+                    passwordWriters.get(shard).write(employeeId + "," + password);
+                    passwordWriters.get(shard).newLine();
+                }
+            }
+            return numberOfEmployees;
+        }
+    }
+
+    /**
+     * Reads the next password from the password file, skipping blank lines.
+     *
+     * @param passwords the password file
+     * @return the next password, or null at the end of the file
+     * @throws IOException If the file cannot be read.
+     */
+    private static String nextPassword(BufferedReader passwords) throws IOException {
+        String line;
+        while ((line = passwords.readLine()) != null) {
+            if (!line.isBlank()) return line.trim();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the names of the shards, in the order they were opened.
+     *
+     * @return the shard names
+     */
+    public List<String> getShardNames() {
+        return List.copyOf(shards.keySet());
+    }
+
+    /**
+     * Returns the payroll system of a shard.
+     *
+     * @param name the name of the shard
+     * @return the shard's payroll system
+     * @throws PayRollException If no shard has the given name.
+     */
+    public PayRollSystem getShard(String name) {
+        Shard shard = shards.get(name);
+        if (shard == null) throw new PayRollException("No such shard: " + name);
+        return shard.payroll;
+    }
+
+    /**
+     * Starts the month-end of every shard on its own worker thread without waiting for any to finish,
+     * so each shard's totals can be used as soon as that shard is done.
+     *
+     * @return the pending totals of each shard, keyed by shard name
+     */
+    public LinkedHashMap<String, CompletableFuture<PayrollTotals>> startMonthEnd() {
+        LinkedHashMap<String, CompletableFuture<PayrollTotals>> runs = new LinkedHashMap<>();
+        for (Shard shard : shards.values()) {
+            runs.put(shard.name, CompletableFuture.supplyAsync(shard.payroll::advanceMonth, shard.worker));
+        }
+        return runs;
+    }
+
+    /**
+     * Advances every shard by one month in parallel and waits for all of them to finish.
+     * Use {@link PayrollTotals#sum} on the result for the totals of the whole university.
+     *
+     * @return the totals of each shard's payroll run, keyed by shard name
+     * @throws PayRollException If a shard's payroll run failed. The other shards are still advanced.
+     */
+    public LinkedHashMap<String, PayrollTotals> advanceMonth() {
+        LinkedHashMap<String, PayrollTotals> totals = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<PayrollTotals>> run : startMonthEnd().entrySet()) {
+            try {
+                totals.put(run.getKey(), run.getValue().join());
+            } catch (CompletionException e) {
+                failed.add(run.getKey() + " (" + e.getCause() + ")");
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new PayRollException("Payroll run failed in shard " + String.join(", ", failed));
+        }
+        return totals;
+    }
+
+    /**
+     * Shuts down every shard in parallel, writing their final snapshots, and stops the worker threads.
+     */
+    @Override
+    public void close() {
+        List<CompletableFuture<Void>> closing = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            if (shard.payroll != null) {
+                closing.add(CompletableFuture.runAsync(shard.payroll::shutdown, shard.worker));
+            }
+        }
+        for (CompletableFuture<Void> c : closing) {
+            try {
+                c.join();
+            } catch (CompletionException e) {
+                System.err.println("Error shutting down a shard.");
+                e.getCause().printStackTrace();
+            }
+        }
+        for (Shard shard : shards.values()) {
+            shard.worker.shutdown();
+            shard.pool.shutdown();
+        }
+    }
+
+    /**
+     * A single shard: its payroll system, worker thread and the pool its pay runs are made on.
+     */
+    private static final class Shard {
+        private final String name;
+        private final ExecutorService worker;
+        private final ForkJoinPool pool;
+        private PayRollSystem payroll;
+
+        /**
+         * Constructs a Shard whose payroll system is yet to be loaded.
+         *
+         * @param name   the name of the shard
+         * @param worker the thread the shard's work runs on
+         * @param pool   the pool the shard's pay runs are made on
+         */
+        Shard(String name, ExecutorService worker, ForkJoinPool pool) {
+            this.name = name;
+            this.worker = worker;
+            this.pool = pool;
+        }
+    }
+}
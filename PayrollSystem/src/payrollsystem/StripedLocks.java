@@ -0,0 +1,40 @@
+package payrollsystem;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared out between employees by ID, so changes to one employee are serialised
+ * without needing a lock object per employee. Two employees may share a stripe, which only costs some
+ * extra waiting and never correctness.
+ */
+public class StripedLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Constructs a set of at least the given number of locks, rounded up to a power of two.
+     *
+     * @param stripes the smallest number of locks
+     */
+    public StripedLocks(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("Stripes must be at least 1: " + stripes);
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) size <<= 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the lock guarding the employee with the given ID.
+     *
+     * @param employeeId the ID number of the employee
+     * @return the lock for that employee's stripe
+     */
+    public ReentrantLock lockFor(int employeeId) {
+        int h = employeeId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
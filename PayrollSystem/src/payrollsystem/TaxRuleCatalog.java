@@ -0,0 +1,178 @@
+package payrollsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The tax rules for every tax year the payroll system knows about, loaded from the TaxRules.csv file.
+ * A payslip uses the rules of the latest tax year starting on or before its pay date, so back-dated
+ * pay runs are taxed under the rules that applied at the time.
+ */
+public class TaxRuleCatalog {
+    private final int[] years;
+    private final TaxRuleSet[] ruleSets;
+
+    /**
+     * Constructs a catalog of the given rule sets.
+     *
+     * @param ruleSetList the rule sets, one per tax year
+     * @throws PayRollException If the list is empty or holds two rule sets for the same year.
+     */
+    public TaxRuleCatalog(List<TaxRuleSet> ruleSetList) {
+        if (ruleSetList.isEmpty()) throw new PayRollException("No tax rules defined");
+        ruleSets = ruleSetList.toArray(new TaxRuleSet[0]);
+        Arrays.sort(ruleSets, Comparator.comparingInt(TaxRuleSet::getYear));
+        years = new int[ruleSets.length];
+        for (int i = 0; i < ruleSets.length; i++) {
+            years[i] = ruleSets[i].getYear();
+            if (i > 0 && years[i] == years[i - 1]) {
+                throw new PayRollException("Tax rules defined twice for " + years[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the rules the payroll system used before tax rules were configurable, for use when no tax rule file exists.
+     *
+     * @return a catalog with a single rule set applying to every year
+     */
+    public static TaxRuleCatalog defaults() {
+        return new TaxRuleCatalog(List.of(new TaxRuleSet(2024,
+                new double[]{0, 12012, 21295, 70044}, new double[]{0.005, 0.02, 0.045, 0.08},
+                new double[]{0, 36800}, new double[]{0.2, 0.4},
+                0.04, 0.1)));
+    }
+
+    /**
+     * Reads a tax rule file made up of blocks separated by blank lines, where the first line of each block
+     * is the tax year and every following line is one of "USC,threshold,rate", "PAYE,threshold,rate",
+     * "PRSI,rate" or "UNION,rate".
+     *
+     * @param file the path to the tax rule file
+     * @return a catalog containing every tax year in the file
+     * @throws IOException      If the file cannot be read.
+     * @throws PayRollException If the file is not formatted correctly.
+     */
+    public static TaxRuleCatalog load(Path file) throws IOException {
+        ArrayList<TaxRuleSet> ruleSetList = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Block block = null;
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    if (block != null) ruleSetList.add(block.build());
+                    block = null;
+                    continue;
+                }
+                try {
+                    if (block == null) {
+                        block = new Block(Integer.parseInt(line.trim()));
+                    } else {
+                        block.addLine(CsvTokenizer.tokenize(line.trim()));
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new PayRollException("Fault in tax rule formatting on line " + lineNumber + ": " + line);
+                }
+            }
+            if (block != null) ruleSetList.add(block.build());
+        }
+        return new TaxRuleCatalog(ruleSetList);
+    }
+
+    /**
+     * Returns the rules in force on the given date: those of the latest tax year starting on or before it,
+     * or the earliest known rules if the date is before every tax year.
+     *
+     * @param date the pay date
+     * @return the tax rules for that date
+     */
+    public TaxRuleSet forDate(LocalDate date) {
+        int found = Arrays.binarySearch(years, date.getYear());
+        if (found < 0) {
+            found = Math.max(0, -found - 2);
+        }
+        return ruleSets[found];
+    }
+
+    /**
+     * The lines of one tax year's block, collected until the block ends.
+     */
+    private static class Block {
+        private final int year;
+        private final ArrayList<double[]> uscBands = new ArrayList<>();
+        private final ArrayList<double[]> payeBands = new ArrayList<>();
+        private double prsiRate;
+        private double unionFeeRate;
+
+        /**
+         * Constructs an empty block for the given year.
+         *
+         * @param year the tax year of the block
+         */
+        Block(int year) {
+            this.year = year;
+        }
+
+        /**
+         * Adds one line of the block.
+         *
+         * @param fields the comma separated fields of the line
+         * @throws PayRollException If the line is not a known kind of rule.
+         */
+        void addLine(String[] fields) {
+            switch (fields[0].trim().toUpperCase()) {
+                case "USC":
+                    uscBands.add(new double[]{Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+                    break;
+                case "PAYE":
+                    payeBands.add(new double[]{Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+                    break;
+                case "PRSI":
+                    prsiRate = Double.parseDouble(fields[1]);
+                    break;
+                case "UNION":
+                    unionFeeRate = Double.parseDouble(fields[1]);
+                    break;
+                default:
+                    throw new PayRollException("Unknown tax rule for " + year + ": " + fields[0]);
+            }
+        }
+
+        /**
+         * Compiles the block into a rule set, sorting the bands by threshold.
+         *
+         * @return the rule set for the block's year
+         */
+        TaxRuleSet build() {
+            uscBands.sort(Comparator.comparingDouble(b -> b[0]));
+            payeBands.sort(Comparator.comparingDouble(b -> b[0]));
+            return new TaxRuleSet(year, column(uscBands, 0), column(uscBands, 1),
+                    column(payeBands, 0), column(payeBands, 1), prsiRate, unionFeeRate);
+        }
+
+        /**
+         * Pulls one column out of a list of bands.
+         *
+         * @param bands  the bands, each a threshold and rate pair
+         * @param column 0 for thresholds or 1 for rates
+         * @return the chosen column as an array
+         */
+        private static double[] column(List<double[]> bands, int column) {
+            double[] values = new double[bands.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bands.get(i)[column];
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package payrollsystem;
+
+import java.util.Arrays;
+
+/**
+ * The tax rules for a single tax year: the USC and PAYE bands, the PRSI rate and the union fee rate.
+ * Bands are held as flat arrays of lower thresholds and marginal rates, so working out a tax is one
+ * short loop over the arrays rather than a chain of hard coded cases.
+ * Thresholds are held in cents and every tax is rounded to the nearest cent.
+ */
+public final class TaxRuleSet {
+    private final int year;
+    private final long[] uscThresholds;
+    private final double[] uscRates;
+    private final long[] payeThresholds;
+    private final double[] payeRates;
+    private final double prsiRate;
+    private final double unionFeeRate;
+
+    /**
+     * Constructs a TaxRuleSet. Each band applies its rate to the part of the pay between its threshold
+     * and the next band's threshold, with the last band applying to all pay above its threshold.
+     *
+     * @param year           the first tax year these rules apply to
+     * @param uscThresholds  the lower threshold in euros of each USC band, starting at 0 and strictly increasing
+     * @param uscRates       the rate of each USC band
+     * @param payeThresholds the lower threshold in euros of each PAYE band, starting at 0 and strictly increasing
+     * @param payeRates      the rate of each PAYE band
+     * @param prsiRate       the PRSI rate applied to all pay
+     * @param unionFeeRate   the union fee rate applied to all pay
+     * @throws PayRollException If the bands are not well formed.
+     */
+    public TaxRuleSet(int year, double[] uscThresholds, double[] uscRates, double[] payeThresholds,
+                      double[] payeRates, double prsiRate, double unionFeeRate) {
+        checkBands("USC", year, uscThresholds, uscRates);
+        checkBands("PAYE", year, payeThresholds, payeRates);
+        this.year = year;
+        this.uscThresholds = toCents(uscThresholds);
+        this.uscRates = uscRates.clone();
+        this.payeThresholds = toCents(payeThresholds);
+        this.payeRates = payeRates.clone();
+        this.prsiRate = prsiRate;
+        this.unionFeeRate = unionFeeRate;
+    }
+
+    /**
+     * Works out every deduction due on the given gross pay under these rules.
+     *
+     * @param grossPay        the pay before deductions in cents
+     * @param healthInsurance the employee's health insurance charge in cents
+     * @return the deductions due
+     */
+    public DeductionBreakdown calculate(long grossPay, long healthInsurance) {
+        return new DeductionBreakdown(grossPay, calcUSC(grossPay), calcPaye(grossPay), calcPRSI(grossPay),
+                calcUnionFees(grossPay), healthInsurance);
+    }
+
+    /**
+     * Calculates the Universal Social Charge on the given pay.
+     *
+     * @param grossPay the pay before deductions in cents
+     * @return the USC due in cents
+     */
+    public long calcUSC(long grossPay) {
+        return bandTax(uscThresholds, uscRates, grossPay);
+    }
+
+    /**
+     * Calculates the Pay As You Earn income tax on the given pay.
+     *
+     * @param grossPay the pay before deductions in cents
+     * @return the PAYE due in cents
+     */
+    public long calcPaye(long grossPay) {
+        return bandTax(payeThresholds, payeRates, grossPay);
+    }
+
+    /**
+     * Calculates the PRSI contribution on the given pay.
+     *
+     * @param grossPay the pay before deductions in cents
+     * @return the PRSI due in cents
+     */
+    public long calcPRSI(long grossPay) {
+        return Money.times(grossPay, prsiRate);
+    }
+
+    /**
+     * Calculates the union fees on the given pay.
+     *
+     * @param grossPay the pay before deductions in cents
+     * @return the union fees due in cents
+     */
+    public long calcUnionFees(long grossPay) {
+        return Money.times(grossPay, unionFeeRate);
+    }
+
+    /**
+     * Gets the first tax year these rules apply to.
+     *
+     * @return the tax year
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Applies a set of marginal bands to the given pay.
+     *
+     * @param thresholds the lower threshold of each band in cents, in increasing order
+     * @param rates      the rate of each band
+     * @param pay        the pay being taxed in cents
+     * @return the tax due across all bands, rounded to the nearest cent
+     */
+    private static long bandTax(long[] thresholds, double[] rates, long pay) {
+        double tax = 0;
+        int last = thresholds.length - 1;
+        for (int i = 0; i < last && pay > thresholds[i]; i++) {
+            tax += (Math.min(pay, thresholds[i + 1]) - thresholds[i]) * rates[i];
+        }
+        if (pay > thresholds[last]) {
+            tax += (pay - thresholds[last]) * rates[last];
+        }
+        return Math.round(tax);
+    }
+
+    /**
+     * Converts a set of band thresholds from euros to cents.
+     *
+     * @param euros the thresholds in euros
+     * @return the thresholds in cents
+     */
+    private static long[] toCents(double[] euros) {
+        long[] cents = new long[euros.length];
+        for (int i = 0; i < euros.length; i++) {
+            cents[i] = Money.ofEuros(euros[i]);
+        }
+        return cents;
+    }
+
+    /**
+     * Checks that a set of bands starts at 0, has a rate for every threshold and increases strictly.
+     *
+     * @param name       the name of the tax, used in error messages
+     * @param year       the tax year, used in error messages
+     * @param thresholds the lower threshold of each band
+     * @param rates      the rate of each band
+     * @throws PayRollException If the bands are not well formed.
+     */
+    private static void checkBands(String name, int year, double[] thresholds, double[] rates) {
+        if (thresholds.length == 0 || thresholds.length != rates.length || thresholds[0] != 0) {
+            throw new PayRollException(name + " bands for " + year + " must start at 0 with one rate per band");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] <= thresholds[i - 1]) {
+                throw new PayRollException(name + " bands for " + year + " must be in increasing order: "
+                        + Arrays.toString(thresholds));
+            }
+        }
+    }
+}
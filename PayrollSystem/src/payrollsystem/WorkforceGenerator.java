@@ -0,0 +1,194 @@
+package payrollsystem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic workforces for load testing the payroll system.
+ * Writes an EmployeeDetails.csv, a matching PasswordFile.csv and a PartTimeClaims.csv stream of pay claims,
+ * drawing every title, rank and category from the position catalog so that every row loads.
+ * The same seed and settings always produce the same files.
+ */
+public class WorkforceGenerator {
+    private static final String[] FIRST_NAMES = {"Aoife", "Ciara", "Emily", "Grace", "Niamh", "Sarah", "Saoirse",
+            "Orla", "Laura", "Roisin", "Conor", "Sean", "Jack", "Michael", "Cian", "Darragh", "Eoin", "Liam",
+            "Patrick", "John", "Mary", "Declan", "Fionn", "Aisling"};
+    private static final String[] LAST_NAMES = {"Murphy", "Kelly", "O'Sullivan", "Walsh", "Smith", "O'Brien",
+            "Byrne", "Ryan", "O'Connor", "O'Neill", "Doyle", "McCarthy", "Gallagher", "Doherty", "Kennedy", "Lynch",
+            "Murray", "Quinn", "Moore", "English", "Daly", "Brennan", "Fitzgerald", "Nolan"};
+    private static final String[] INSURANCE_TIERS = {"Basic", "Standard", "Enhanced", "Premium"};
+    private static final String[] HOURS = {"5", "7.5", "10", "12.5", "15", "20", "25", "30", "37.5", "40", "60", "80"};
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PositionCatalog positionCatalog;
+    private final long seed;
+    private double partTimeRatio = 0.2;
+    private double lateClaimRatio = 0.1;
+    private LocalDate today = LocalDate.now();
+
+    /**
+     * Constructs a WorkforceGenerator drawing positions from the given catalog.
+     *
+     * @param positionCatalog the positions employees are given
+     * @param seed            the random seed
+     */
+    public WorkforceGenerator(PositionCatalog positionCatalog, long seed) {
+        if (positionCatalog.size() == 0) throw new PayRollException("Cannot generate a workforce without positions");
+        this.positionCatalog = positionCatalog;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the share of employees who are part-time.
+     *
+     * @param partTimeRatio a value between 0 and 1
+     * @return this generator
+     */
+    public WorkforceGenerator setPartTimeRatio(double partTimeRatio) {
+        this.partTimeRatio = partTimeRatio;
+        return this;
+    }
+
+    /**
+     * Sets the share of pay claims submitted after the second-Friday deadline.
+     *
+     * @param lateClaimRatio a value between 0 and 1
+     * @return this generator
+     */
+    public WorkforceGenerator setLateClaimRatio(double lateClaimRatio) {
+        this.lateClaimRatio = lateClaimRatio;
+        return this;
+    }
+
+    /**
+     * Sets the date the workforce is generated as of. Promotion dates fall before it and claims lead up to it.
+     * Fixing this date makes the output independent of when the generator is run.
+     *
+     * @param today the date to generate as of
+     * @return this generator
+     */
+    public WorkforceGenerator setToday(LocalDate today) {
+        this.today = today;
+        return this;
+    }
+
+    /**
+     * Writes EmployeeDetails.csv, PasswordFile.csv and PartTimeClaims.csv into the given directory.
+     *
+     * @param directory   the directory to write into
+     * @param employees   the number of employees to generate
+     * @param claimMonths the number of months of pay claims to generate for each part-time employee
+     * @return the number of pay claims written
+     * @throws IOException If a file cannot be written.
+     */
+    public long generate(Path directory, int employees, int claimMonths) throws IOException {
+        int[] ids = writeEmployees(directory, employees);
+        return writeClaims(directory, ids, claimMonths);
+    }
+
+    /**
+     * Writes EmployeeDetails.csv and the matching PasswordFile.csv, one password per employee in the same order.
+     *
+     * @param directory the directory to write into
+     * @param employees the number of employees to generate
+     * @return the ID number each employee is given when the file is loaded into an empty payroll system, in file order
+     * @throws IOException If a file cannot be written.
+     */
+    public int[] writeEmployees(Path directory, int employees) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Position> positions = positionCatalog.getPositions();
+        int[] ids = new int[employees];
+        try (BufferedWriter details = newWriter(directory.resolve("EmployeeDetails.csv"));
+             BufferedWriter passwords = newWriter(directory.resolve("PasswordFile.csv"))) {
+            StringBuilder line = new StringBuilder(96);
+            for (int i = 0; i < employees; i++) {
+                String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                Position position = positions.get(random.nextInt(positions.size()));
+                ids[i] = Employee.idOf(position, i);
+                LocalDate promoted = today.minusDays(1 + random.nextInt(3650));
+                line.setLength(0);
+                line.append(name).append(',')
+                        .append("08").append(random.nextInt(10)).append(' ')
+                        .append(100 + random.nextInt(900)).append(' ')
+                        .append(1000 + random.nextInt(9000)).append(',')
+                        .append(position.getTitle()).append(',')
+                        .append(1 + random.nextInt(position.getTopRank())).append(',')
+                        .append(promoted.format(PayRollSystem.DATE_FORMAT)).append(',')
+                        .append(INSURANCE_TIERS[random.nextInt(INSURANCE_TIERS.length)]);
+                if (isPartTime(i)) {
+                    line.append(",Parttime");
+                }
+                details.append(line).append(System.lineSeparator());
+                passwords.append(name.replaceAll("['\\s]", "")).append("123").append(System.lineSeparator());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Writes PartTimeClaims.csv, holding one claim per part-time employee per month as "employeeId,claimDate,hours".
+     * Claims are ordered by month, as they would arrive from a timesheet system.
+     *
+     * @param directory   the directory to write into
+     * @param ids         the employee IDs returned by {@link #writeEmployees(Path, int)}
+     * @param claimMonths the number of months of claims to write, ending with the current month
+     * @return the number of claims written
+     * @throws IOException If the file cannot be written.
+     */
+    public long writeClaims(Path directory, int[] ids, int claimMonths) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        long written = 0;
+        try (BufferedWriter claims = newWriter(directory.resolve("PartTimeClaims.csv"))) {
+            StringBuilder line = new StringBuilder(32);
+            for (int m = claimMonths - 1; m >= 0; m--) {
+                LocalDate deadline = today.minusMonths(m)
+                        .with(TemporalAdjusters.dayOfWeekInMonth(2, DayOfWeek.FRIDAY));
+                for (int i = 0; i < ids.length; i++) {
+                    if (!isPartTime(i)) continue;
+                    LocalDate claimDate = random.nextDouble() < lateClaimRatio
+                            ? deadline.plusDays(1 + random.nextInt(5))
+                            : deadline.minusDays(1 + random.nextInt(20));
+                    line.setLength(0);
+                    line.append(ids[i]).append(',')
+                            .append(claimDate).append(',')
+                            .append(HOURS[random.nextInt(HOURS.length)]);
+                    claims.append(line).append(System.lineSeparator());
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Decides whether the employee at the given row is part-time, independently of the other random draws.
+     *
+     * @param row the employee's row in the file
+     * @return true if the employee is part-time
+     */
+    private boolean isPartTime(int row) {
+        long h = (seed + row) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        return (h >>> 11) * 0x1.0p-53 < partTimeRatio;
+    }
+
+    /**
+     * Opens a large buffered writer on a file, replacing any existing contents.
+     *
+     * @param file the file to write
+     * @return the writer
+     * @throws IOException If the file cannot be opened.
+     */
+    private static BufferedWriter newWriter(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,127 @@
+package payrollsystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that employees keep their own passwords across a restart after an earlier employee has been removed,
+ * for every kind of storage, both when the payroll snapshot is restored and when the employees are recovered
+ * without it. Run from the PayrollSystem directory so the data files can be copied, either by {@code mvn test}
+ * or directly, for example:
+ * <pre>
+ * javac -d out/test $(find src test -name "*.java")
+ * java -ea -cp out/test payrollsystem.RestartLoginTest
+ * </pre>
+ * A failed check throws an AssertionError naming the storage and the check that failed.
+ */
+public class RestartLoginTest {
+    private static final String[] DATA_FILES = {"PositionDetails.csv", "TaxRules.csv", "EmployeeDetails.csv",
+            "PasswordFile.csv"};
+
+    /**
+     * Runs the restart check for each kind of storage, with and without the payroll snapshot.
+     *
+     * @param args not used
+     * @throws IOException If a data file cannot be copied.
+     */
+    public static void main(String[] args) throws IOException {
+        for (PayRollSystem.Storage storage : PayRollSystem.Storage.values()) {
+            removeThenLogIn(storage, true);
+            removeThenLogIn(storage, false);
+        }
+        System.out.println("RestartLoginTest passed");
+    }
+
+    /**
+     * Removes an employee, restarts the payroll system and logs in as an employee listed after them.
+     *
+     * @param storage      the kind of storage the payroll system uses
+     * @param withSnapshot false to delete the payroll snapshot before restarting
+     * @throws IOException If a data file cannot be copied.
+     */
+    private static void removeThenLogIn(PayRollSystem.Storage storage, boolean withSnapshot) throws IOException {
+        String name = storage + (withSnapshot ? "" : " without snapshot");
+        Path directory = Files.createTempDirectory("payroll-restart-");
+        try {
+            for (String file : DATA_FILES) {
+                Files.copy(Path.of(file), directory.resolve(file));
+            }
+            PayRollSystem payroll = new PayRollSystem(directory, storage);
+            List<Employee> employees = payroll.getEmployees();
+            Employee removed = employees.get(3);
+            Employee later = findByName(employees, "Mark O'Brien");
+            Employee other = findByName(employees, "Jane Smith");
+            check(employees.indexOf(later) > employees.indexOf(removed), name,
+                    "Mark O'Brien is listed after the removed employee");
+            int laterId = later.getEmployeeId();
+            payroll.removeEmployee(removed);
+            payroll.shutdown();
+            if (!withSnapshot) {
+                Files.deleteIfExists(directory.resolve("PayrollSnapshot.dat"));
+            }
+
+            PayRollSystem restarted = new PayRollSystem(directory, storage);
+            try {
+                check(!restarted.containsEmployee(removed.getEmployeeId()), name,
+                        "the removed employee stays removed");
+                check(restarted.checkPassword(laterId, "MarkOBrien123"), name,
+                        "Mark O'Brien logs in with the password on their own line of PasswordFile.csv");
+                check(!restarted.checkPassword(laterId, "JaneSmith123"), name,
+                        "Mark O'Brien cannot log in with Jane Smith's password");
+                check(restarted.checkPassword(other.getEmployeeId(), "JaneSmith123"), name,
+                        "Jane Smith logs in with the password on their own line of PasswordFile.csv");
+            } finally {
+                restarted.shutdown();
+            }
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Finds the first employee with the given name.
+     *
+     * @param employees the employees to search
+     * @param name      the name of the employee
+     * @return the employee
+     * @throws AssertionError If no employee has that name.
+     */
+    private static Employee findByName(List<Employee> employees, String name) {
+        for (Employee e : employees) {
+            if (e.getName().equals(name)) return e;
+        }
+        throw new AssertionError("No employee named " + name + " in EmployeeDetails.csv");
+    }
+
+    /**
+     * Fails the test if a condition does not hold.
+     *
+     * @param condition   the condition to check
+     * @param storage     the storage being tested, for the failure message
+     * @param description what the condition means
+     * @throws AssertionError If the condition is false.
+     */
+    private static void check(boolean condition, String storage, String description) {
+        if (!condition) {
+            throw new AssertionError(storage + ": expected " + description);
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param directory the directory to delete
+     * @throws IOException If a file cannot be deleted.
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}